@@ -2,36 +2,63 @@ package model;
 
 import model.exceptions.InsufficientFundsException;
 import model.boosts.*;
+import model.events.*;
 import model.exceptions.InvalidCardException;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import persistence.Writable;
 
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 // Represents an account having an id, associated user, balance, list of credit cards and transactions
 public class Account implements Writable {
-    private static String id;                  // account id
+    public static final long NO_WATERMARK = Long.MIN_VALUE;
+    private String id;                    // account id
     private User user;                   // the account owner name
-    private double balance;               // the current balance of the account
+    private final AtomicLong balance;     // the current balance in cents, a cached projection of the Ledger
+    private volatile LongAdder stripedCredits; // credits not yet folded into balance, only for striped accounts
+    private volatile LongAdder accruedCashBack; // cashback not yet posted to balance, only in cashback accrual mode
     private List<CreditCard> creditCards; // list of credit cards added to this user account
-    private List<Transaction> transactions; // list of completed transactions associated to this account
+    private TransactionHistory transactions; // transactions associated to this account, bucketed by status
     private Set<Boost> boosts; // list of selected boosts associated to this account
+    private BoostEngine boostEngine; // boosts compiled into lookup tables, rebuilt when boosts change
+    private int boostTypeMask; // bit of each added boost's type, see BoostEligibilityCache
+    private final Map<String, Long> promotionWatermarks; // promotion id -> newest transaction id it considered
+    private BoostCatalog boostCatalog; // shared catalog of boost rules, null if this account has none
+    private volatile AccountEventListener eventListener; // told about every event of this account, null if none
+    private volatile Ledger ledger; // where balance changes of this account are posted, null if nowhere
     private static Boost highRoller = new HighRollerBoost();  // Boost available to account
     private static Boost shopaholic = new ShopaholicBoost(); // Boost available to account
     private static Boost foodie = new FoodieBoost();    // Boost available to account
 
     //REQUIRES: valid user of Cash App and initial balance >= 0
     //EFFECTS: creates an account based on the user, balance on account is set
-    //         to given initialBalance
+    //         to given initialBalance. The account posts to no ledger, as suits accounts read back from a file
+    //         or standing in for a counterparty
     public Account(User user, double initialBalance) {
-        this.balance = initialBalance;
+        this.balance = new AtomicLong(Money.toCents(initialBalance));
         this.user = user;
-        this.id = UUID.randomUUID().toString();
+        this.id = IdGenerator.newId();
         this.creditCards = new ArrayList<>();
-        this.transactions = new ArrayList<>();
+        this.transactions = new ObjectTransactionHistory();
         this.boosts = new HashSet<>();
+        this.boostEngine = BoostEngine.EMPTY;
+        this.promotionWatermarks = new ConcurrentHashMap<>();
+    }
+
+    //REQUIRES: valid user of Cash App and initial balance >= 0
+    //EFFECTS: opens a new account like above that posts its balance changes to ledger, starting with its
+    //         initialBalance as an opening balance
+    public Account(User user, double initialBalance, Ledger ledger) {
+        this(user, initialBalance);
+        this.ledger = ledger;
+        post(Ledger.Kind.OPENING, null, this, balance.get());
     }
 
     //Getters
@@ -44,39 +71,96 @@ public class Account implements Writable {
     }
 
     public double getBalance() {
-        return balance;
+        return Money.toDollars(getBalanceCents());
+    }
+
+    //EFFECTS: returns the balance in cents; for a striped account this sums the credit cells on every call
+    public long getBalanceCents() {
+        LongAdder credits = stripedCredits;
+        if (credits == null) {
+            return balance.get();
+        }
+        return balance.get() + credits.sum();
     }
 
-    public List getCreditCards() {
+    public boolean isBalanceStriped() {
+        return stripedCredits != null;
+    }
+
+    public List<CreditCard> getCreditCards() {
         return creditCards;
     }
 
-    public List getCompletedTransactions() {
-        List<Transaction> completedTransactions = transactions
-                .stream()
-                .filter(transaction -> transaction.getStatus() == Transaction.Status.COMPLETE)
-                .collect(Collectors.toList());
-        return completedTransactions;
+    // the status getters return copies taken under this account's lock, so callers can iterate them while
+    // settlement and service threads keep changing this account; code that only walks the transactions once
+    // should use forEachTransaction(status, action) instead, which copies nothing
+    public List<Transaction> getCompletedTransactions() {
+        return copyTransactions(Transaction.Status.COMPLETE);
+    }
+
+    public List<Transaction> getPendingTransactions() {
+        return copyTransactions(Transaction.Status.PENDING);
+    }
+
+    public List<Transaction> getFailedTransactions() {
+        return copyTransactions(Transaction.Status.FAILED);
+    }
+
+    //EFFECTS: returns a copy of the transactions with given status, safe to read while this account changes
+    public synchronized List<Transaction> copyTransactions(Transaction.Status status) {
+        return new ArrayList<>(transactions.withStatus(status));
+    }
+
+    //EFFECTS: returns a copy of every transaction in the order they were added, safe to read while this account
+    //         changes
+    public synchronized List<Transaction> copyTransactions() {
+        return new ArrayList<>(transactions.all());
+    }
+
+    //EFFECTS: hands every transaction to action in the order they were added, one at a time under this account's
+    //         lock, without copying the history first. A columnar history materializes one row per call
+    public synchronized void forEachTransaction(Consumer<Transaction> action) {
+        for (Transaction transaction : transactions.all()) {
+            action.accept(transaction);
+        }
+    }
+
+    //EFFECTS: returns every transaction as it is now, in the order they were added, taken under this account's lock
+    //         without turning any of them into JSON. Later changes to this account do not show in it
+    public synchronized List<Transaction> snapshotTransactions() {
+        return transactions.snapshot();
+    }
+
+    //EFFECTS: hands every transaction with given status to action like forEachTransaction(action). Action must not
+    //         change the status of the transactions of this account
+    public synchronized void forEachTransaction(Transaction.Status status, Consumer<Transaction> action) {
+        for (Transaction transaction : transactions.withStatus(status)) {
+            action.accept(transaction);
+        }
     }
 
-    public List getPendingTransactions() {
-        List<Transaction> pendingTransactions = transactions
-                .stream()
-                .filter(transaction -> transaction.getStatus() == Transaction.Status.PENDING)
-                .collect(Collectors.toList());
-        return pendingTransactions;
+    public synchronized int getTransactionCount(Transaction.Status status) {
+        return transactions.count(status);
     }
 
-    public List getFailedTransactions() {
-        List<Transaction> failedTransactions = transactions
-                .stream()
-                .filter(transaction -> transaction.getStatus() == Transaction.Status.FAILED)
-                .collect(Collectors.toList());
-        return failedTransactions;
+    public synchronized boolean hasColumnarHistory() {
+        return transactions instanceof ColumnarTransactionHistory;
     }
 
-    public Set getBoosts() {
-        return boosts;
+    //EFFECTS: returns read-only view of this account's boosts; use addBoost and removeBoost to change them
+    public Set<Boost> getBoosts() {
+        return Collections.unmodifiableSet(boosts);
+    }
+
+    //EFFECTS: returns the watermark promotionId left on this account: it has considered every transaction whose
+    //         id orders at or below it (see IdGenerator.orderOf). NO_WATERMARK if it never ran on this account
+    public long getPromotionWatermark(String promotionId) {
+        return promotionWatermarks.getOrDefault(promotionId, NO_WATERMARK);
+    }
+
+    //EFFECTS: returns the watermark of every promotion that ran on this account, by promotion id
+    public Map<String, Long> getPromotionWatermarks() {
+        return Collections.unmodifiableMap(new HashMap<>(promotionWatermarks));
     }
 
     public Boost getHighRollerBoost() {
@@ -91,6 +175,16 @@ public class Account implements Writable {
         return foodie;
     }
 
+    //MODIFY: this
+    //EFFECTS: moves the watermark of promotionId from expected to watermark and returns true, or returns false
+    //         and changes nothing if another run moved it first
+    public boolean advancePromotionWatermark(String promotionId, long expected, long watermark) {
+        if (expected == NO_WATERMARK) {
+            return promotionWatermarks.putIfAbsent(promotionId, watermark) == null;
+        }
+        return promotionWatermarks.replace(promotionId, expected, watermark);
+    }
+
     //Setter
     public void setId(String id) {
         this.id = id;
@@ -98,42 +192,318 @@ public class Account implements Writable {
 
     //increment and decrement separate setters to avoid mistakenly wiping out account
     public void incrementBalance(double amount) {
-        this.balance += amount;
+        incrementBalanceCents(Money.toCents(amount));
+    }
+
+    public void incrementBalanceCents(long cents) {
+        incrementBalanceCents(cents, Ledger.Kind.DEPOSIT);
+    }
+
+    //REQUIRES: cents >= 0
+    //MODIFY: this
+    //EFFECTS: adds cents to the balance and records it in the ledger as money of given kind coming from outside
+    public void incrementBalanceCents(long cents, Ledger.Kind kind) {
+        credit(cents);
+        post(kind, null, this, cents);
+    }
+
+    //MODIFY: this
+    //EFFECTS: adds cents to the balance without touching the ledger
+    private void credit(long cents) {
+        LongAdder credits = stripedCredits;
+        if (credits == null) {
+            balance.addAndGet(cents);
+        } else {
+            credits.add(cents);
+        }
+    }
+
+    public Ledger getLedger() {
+        return ledger;
+    }
+
+    //MODIFY: this
+    //EFFECTS: from now on balance changes of this account are posted to ledger; null stops posting them. Whatever
+    //         part of the current balance ledger does not hold yet, such as the balance of an account read back from
+    //         a file, is posted to it as an opening balance, so the ledger's balance of this account matches it
+    public synchronized void setLedger(Ledger ledger) {
+        if (ledger != null && ledger != this.ledger) {
+            long opening = getBalanceCents() - ledger.balanceOf(id);
+            if (opening > 0) {
+                ledger.append(Ledger.Kind.OPENING, null, id, opening);
+            } else if (opening < 0) {
+                ledger.append(Ledger.Kind.OPENING, id, null, -opening);
+            }
+        }
+        this.ledger = ledger;
+    }
+
+    //EFFECTS: appends a posting of cents from debit to credit to the ledger of each side that has one, once if
+    //         both sides share a ledger; does nothing if cents is 0
+    private static void post(Ledger.Kind kind, Account debit, Account credit, long cents) {
+        if (cents == 0) {
+            return;
+        }
+        Ledger debitLedger = debit == null ? null : debit.ledger;
+        Ledger creditLedger = credit == null ? null : credit.ledger;
+        String debitId = debit == null ? null : debit.id;
+        String creditId = credit == null ? null : credit.id;
+        if (debitLedger != null) {
+            debitLedger.append(kind, debitId, creditId, cents);
+        }
+        if (creditLedger != null && creditLedger != debitLedger) {
+            creditLedger.append(kind, debitId, creditId, cents);
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: if this is a business account, spreads future credits across padded LongAdder cells so that many
+    //         buyers paying this merchant at once do not contend on one field, and returns true.
+    //         Returns false and leaves this unchanged for personal accounts
+    public boolean enableBalanceStriping() {
+        if (!(user instanceof BusinessUser)) {
+            return false;
+        }
+        if (stripedCredits == null) {
+            stripedCredits = new LongAdder();
+        }
+        return true;
+    }
+
+    public AccountEventListener getEventListener() {
+        return eventListener;
+    }
+
+    //MODIFY: this
+    //EFFECTS: from now on listener is told about every event of this account: money sent, purchases, money
+    //         requested, requests settled, cashback posted, boosts and cards added and friends referred; null
+    //         stops recording events
+    public void setEventListener(AccountEventListener listener) {
+        eventListener = listener;
+    }
+
+    //EFFECTS: tells the event listener of this account about event, if it has one
+    void recordEvent(AccountEvent event) {
+        AccountEventListener listener = eventListener;
+        if (listener != null) {
+            listener.onEvent(this, event);
+        }
+    }
+
+    //EFFECTS: tells the event listeners of both sides of transaction about it with an event made by newEvent,
+    //         each with its own balance
+    private static void recordMoneyMoved(Transaction transaction,
+                                         BiFunction<Transaction, Long, MoneyMovedEvent> newEvent) {
+        Account sender = transaction.getSenderAccount();
+        Account recipient = transaction.getRecipientAccount();
+        for (Account side : sender == recipient ? new Account[]{sender} : new Account[]{sender, recipient}) {
+            if (side.eventListener != null) {
+                side.recordEvent(newEvent.apply(transaction, side.getBalanceCents()));
+            }
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: sets the balance to cents while rebuilding this account from its events. Nothing is posted to the
+    //         ledger, since these changes were posted when the events first happened
+    void restoreBalanceCents(long cents) {
+        balance.addAndGet(cents - getBalanceCents());
+    }
+
+    //MODIFY: this
+    //EFFECTS: from now on cashback is collected in an accumulator instead of being added to the balance on every
+    //         purchase; postAccruedCashBack moves it to the balance in one go
+    public void enableCashBackAccrual() {
+        if (accruedCashBack == null) {
+            accruedCashBack = new LongAdder();
+        }
+    }
+
+    public boolean isCashBackAccrued() {
+        return accruedCashBack != null;
+    }
+
+    //EFFECTS: returns cashback in cents collected but not posted yet, 0 if not in accrual mode
+    public long getAccruedCashBackCents() {
+        LongAdder accrued = accruedCashBack;
+        return accrued == null ? 0 : accrued.sum();
+    }
+
+    //REQUIRES: cents >= 0
+    //MODIFY: this
+    //EFFECTS: adds cashback in cents to the accumulator in accrual mode, straight to the balance otherwise
+    public void creditCashBack(long cents) {
+        LongAdder accrued = accruedCashBack;
+        if (accrued == null) {
+            incrementBalanceCents(cents, Ledger.Kind.CASHBACK);
+        } else {
+            accrued.add(cents);
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: adds all accrued cashback to the balance as one completed CASHBACK transaction and returns it.
+    //         Returns null if nothing has accrued or this account is not in accrual mode
+    public Transaction postAccruedCashBack() {
+        LongAdder accrued = accruedCashBack;
+        long cents = accrued == null ? 0 : accrued.sumThenReset();
+        if (cents == 0) {
+            return null;
+        }
+        return postCashBack(cents);
+    }
+
+    //REQUIRES: cents > 0
+    //MODIFY: this
+    //EFFECTS: adds cents to the balance as one completed CASHBACK transaction and returns it
+    public Transaction postCashBack(long cents) {
+        incrementBalanceCents(cents, Ledger.Kind.CASHBACK);
+        Transaction cashBack = new Transaction(IdGenerator.newId(), this, this, cents, LocalDate.now(),
+                Transaction.Status.COMPLETE, Transaction.Type.CASHBACK);
+        addToTransactions(cashBack);
+        recordMoneyMoved(cashBack, CashBackPosted::new);
+        return cashBack;
     }
 
     // Effects: Decrement balance, throws insufficient funds exception is amount is greater than balance
     public void decrementBalance(double amount) throws InsufficientFundsException {
-        if (amount <= this.balance) {
-            this.balance -= amount;
-        } else {
+        decrementBalanceCents(Money.toCents(amount));
+    }
+
+    // Effects: Decrement balance by given cents, throws insufficient funds exception if cents is greater than balance
+    public void decrementBalanceCents(long cents) throws InsufficientFundsException {
+        if (!tryDebit(cents)) {
             throw new InsufficientFundsException("Balance is going to be negative!");
         }
     }
 
+    //REQUIRES: cents >= 0
+    //MODIFY: this
+    //EFFECTS: atomically takes cents off the balance, records it in the ledger as a withdrawal and returns true if
+    //         the balance covers it, otherwise leaves the balance unchanged and returns false. Never blocks, and the
+    //         balance can never go negative
+    public boolean tryDebit(long cents) {
+        if (!debit(cents)) {
+            return false;
+        }
+        post(Ledger.Kind.WITHDRAWAL, this, null, cents);
+        return true;
+    }
+
+    //MODIFY: this
+    //EFFECTS: same as tryDebit, but does not touch the ledger. Striped credits are folded in again as long as some
+    //         are left, since another debit may take the folded amount while this one's credits are still striped
+    private boolean debit(long cents) {
+        if (tryDebitSettled(cents)) {
+            return true;
+        }
+        LongAdder credits = stripedCredits;
+        if (credits == null) {
+            return false;
+        }
+        do {
+            foldCredits(credits);
+            if (tryDebitSettled(cents)) {
+                return true;
+            }
+        } while (credits.sum() > 0);
+        return false;
+    }
+
+    //MODIFY: this
+    //EFFECTS: moves the striped credits into balance. The amount reaches balance before it leaves the stripes, so
+    //         a concurrent debit or balance read never misses it; folds take turns, so balance never counts the
+    //         same credits twice
+    private void foldCredits(LongAdder credits) {
+        synchronized (credits) {
+            long sum = credits.sum();
+            balance.addAndGet(sum);
+            credits.add(-sum);
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: same as debit, but only looks at credits already folded into balance
+    private boolean tryDebitSettled(long cents) {
+        long current = balance.get();
+        while (current >= cents) {
+            if (balance.compareAndSet(current, current - cents)) {
+                return true;
+            }
+            current = balance.get();
+        }
+        return false;
+    }
+
+    //REQUIRES: cents >= 0
+    //MODIFY: this, recipient
+    //EFFECTS: atomically moves cents from this account to recipient and returns true if the balance covers it,
+    //         otherwise leaves both balances unchanged and returns false
+    public boolean transferTo(Account recipient, long cents) {
+        long handle = TransferLocks.lock(this, recipient);
+        try {
+            if (!debit(cents)) {
+                return false;
+            }
+            recipient.credit(cents);
+            post(Ledger.Kind.TRANSFER, this, recipient, cents);
+            return true;
+        } finally {
+            TransferLocks.unlock(handle);
+        }
+    }
+
     //MODIFY: this
     //EFFECT: updates list of completed transactions by adding completed
-    public void addToTransactions(Transaction transaction) {
+    public synchronized void addToTransactions(Transaction transaction) {
         transactions.add(transaction);
     }
 
     //REQUIRES: non empty pending Transaction, given transaction is contained in pending list
     //MODIFY: this
     //EFFECT: updates list of pending transactions by removing completed
-    public void removeFromTransactions(Transaction transaction) {
+    public synchronized void removeFromTransactions(Transaction transaction) {
         transactions.remove(transaction);
     }
 
+    //MODIFY: this
+    //EFFECTS: moves transaction from the bucket of its previous status into the bucket of its current status, if
+    //         this account holds it, and records a settled request. The event is recorded outside this account's
+    //         lock, since the event listener may take it again to snapshot this account
+    void transactionStatusChanged(Transaction transaction, Transaction.Status previousStatus) {
+        synchronized (this) {
+            transactions.statusChanged(transaction, previousStatus);
+        }
+        if (transaction.getType() == Transaction.Type.REQUEST && eventListener != null) {
+            recordEvent(new RequestSettled(transaction, getBalanceCents()));
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: moves the transaction history of this account into primitive columns, for accounts with so many
+    //         transactions that one object per transaction no longer fits in memory. Transactions read back from
+    //         the history are then copies materialized on demand
+    public synchronized void useColumnarHistory() {
+        if (hasColumnarHistory()) {
+            return;
+        }
+        TransactionHistory columnar = new ColumnarTransactionHistory(this);
+        for (Transaction t : transactions.all()) {
+            columnar.add(t);
+        }
+        transactions = columnar;
+    }
+
 
     // MODIFY: this
     // EFFECTS: amount is added to balance from given card (if valid) and updated balance is returned, throws invalid
     // card exception if card is not valid
     public double deposit(CreditCard card, double amount) throws InvalidCardException {
-        if (card.getIsValid()) {
-            this.balance += amount;
-        } else {
+        if (!card.getIsValid()) {
             throw new InvalidCardException("Credit Card Not Valid!");
         }
-        return balance;
+        incrementBalanceCents(Money.toCents(amount));
+        return getBalance();
     }
 
     //MODIFY: this
@@ -145,12 +515,10 @@ public class Account implements Writable {
         if (!card.getIsValid()) {
             throw new InvalidCardException("Credit Card Not Valid");
         }
-        if (this.balance < amount) {
+        if (!tryDebit(Money.toCents(amount))) {
             throw new InsufficientFundsException("Not enough balance!");
-        } else {
-            this.balance -= amount;
-            return true;
         }
+        return true;
 
     }
 
@@ -160,33 +528,117 @@ public class Account implements Writable {
     public Transaction sendMoney(Account recipient, double amount) {
         Transaction transaction = new Transaction(recipient, this, amount, Transaction.Type.EXCHANGE,
                 Transaction.Status.PENDING);
-        transactions.add(transaction);
+        addToTransactions(transaction);
         recipient.addToTransactions(transaction);
+        recordMoneyMoved(transaction, MoneySent::new);
         return transaction;
     }
 
+    //REQUIRES: amount >= 0 and valid user of cash app as recipient
+    //MODIFY: this
+    //EFFECTS: sends money like sendMoney(recipient, amount), unless this account already sent money, made a purchase
+    //         or requested money with given idempotency key recently, in which case nothing happens and the
+    //         transaction made then is returned
+    public Transaction sendMoney(Account recipient, double amount, String idempotencyKey) {
+        return IdempotencyCache.shared().getOrCreate(scoped(idempotencyKey), () -> sendMoney(recipient, amount));
+    }
+
+    //MODIFY: this, every recipient
+    //EFFECTS: sends every transfer as one all-or-nothing batch: the total is checked against the balance and
+    //         debited once, then every recipient is credited and a COMPLETE transaction is recorded for each transfer.
+    //         Returns the transactions in the order of transfers. If the balance does not cover the total, throws
+    //         insufficient funds exception, and if a transfer has no recipient or is not for a positive amount,
+    //         throws IllegalArgumentException; either way nothing is changed
+    public List<Transaction> sendMoneyBatch(List<Transfer> transfers) throws InsufficientFundsException {
+        long total = totalOf(transfers);
+        if (!debit(total)) {
+            throw new InsufficientFundsException("Not enough balance for this batch!");
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Transaction> sent = new ArrayList<>(transfers.size());
+        for (Transfer t : transfers) {
+            Account recipient = t.getRecipient();
+            recipient.credit(t.getAmountCents());
+            post(Ledger.Kind.TRANSFER, this, recipient, t.getAmountCents());
+            Transaction transaction = new Transaction(IdGenerator.newId(), recipient, this, t.getAmountCents(),
+                    today, Transaction.Status.COMPLETE, Transaction.Type.EXCHANGE);
+            recipient.addToTransactions(transaction);
+            sent.add(transaction);
+        }
+        addAllToTransactions(sent);
+        sent.forEach(transaction -> recordMoneyMoved(transaction, MoneySent::new));
+        return sent;
+    }
+
+    //EFFECTS: returns the total of transfers, throws IllegalArgumentException if a transfer has no recipient or is
+    //         not for a positive amount, or ArithmeticException if the total overflows
+    private static long totalOf(List<Transfer> transfers) {
+        long total = 0;
+        for (Transfer t : transfers) {
+            if (t.getRecipient() == null || t.getAmountCents() <= 0) {
+                throw new IllegalArgumentException("Every transfer needs a recipient and a positive amount");
+            }
+            total = Math.addExact(total, t.getAmountCents());
+        }
+        return total;
+    }
+
+    //MODIFY: this
+    //EFFECTS: adds every given transaction to this account's transactions under a single lock acquisition
+    private synchronized void addAllToTransactions(List<Transaction> batch) {
+        for (Transaction t : batch) {
+            transactions.add(t);
+        }
+    }
+
     //REQUIRES: amount >= 0
     //MODIFY: this
     //EFFECTS: amount is deposited into account. Updated balance returned.
     public double receiveMoney(double amount) {
-        this.balance += amount;
-        return balance;
+        incrementBalanceCents(Money.toCents(amount));
+        return getBalance();
     }
 
     //REQUIRES: amount >= 0 and valid Business user of cash app as recipient
     //MODIFY: this
     //EFFECTS: new transaction created with this as sender and company as receiver, updates list of pending transactions
+    //         and credits the cashback of all boosts in a single update
     public Transaction makePurchase(Account company, double amount) {
         Transaction transaction = new Transaction(company, this, amount, Transaction.Type.EXCHANGE,
                 Transaction.Status.PENDING);
-        transactions.add(transaction);
+        addToTransactions(transaction);
         company.addToTransactions(transaction);
-        for (Boost b : boosts) {
-            b.applyBoost(transaction);
+        long cashBack = cashBackFor(transaction);
+        if (cashBack > 0) {
+            creditCashBack(cashBack);
         }
+        recordMoneyMoved(transaction, PurchaseMade::new);
         return transaction;
     }
 
+    //REQUIRES: amount >= 0 and valid Business user of cash app as recipient
+    //MODIFY: this
+    //EFFECTS: makes purchase like makePurchase(company, amount), unless given idempotency key was used by this
+    //         account recently, in which case the transaction made then is returned
+    public Transaction makePurchase(Account company, double amount, String idempotencyKey) {
+        return IdempotencyCache.shared().getOrCreate(scoped(idempotencyKey), () -> makePurchase(company, amount));
+    }
+
+    //EFFECTS: returns cashback in cents that purchase earns from this account's boosts and boost catalog, at most
+    //         the purchase amount. The boost engine is only consulted if the merchant's eligibility shares a bit
+    //         with this account's boosts
+    private long cashBackFor(Transaction purchase) {
+        int percent = 0;
+        if ((BoostEligibilityCache.eligibilityOf(purchase.getRecipientAccount()) & boostTypeMask) != 0) {
+            percent = boostEngine.percentFor(purchase.getRecipient(), purchase.getAmountCents());
+        }
+        if (boostCatalog != null) {
+            percent += boostCatalog.percentFor(purchase);
+        }
+        return Money.percentOf(purchase.getAmountCents(), Math.min(percent, BoostExpression.MAX_PERCENT));
+    }
+
     //REQUIRES: amount >= 0 and valid user of cash app
     //MODIFY: this
     //EFFECTS: new transaction is created, updates list of pending transactions
@@ -196,17 +648,43 @@ public class Account implements Writable {
                 amount,
                 Transaction.Type.REQUEST,
                 Transaction.Status.PENDING);
-        transactions.add(transaction);
+        addToTransactions(transaction);
         user.addToTransactions(transaction);
+        recordMoneyMoved(transaction, MoneyRequested::new);
         return transaction;
     }
 
+    //REQUIRES: amount >= 0 and valid user of cash app
+    //MODIFY: this
+    //EFFECTS: requests money like requestMoney(user, amount), unless given idempotency key was used by this account
+    //         recently, in which case the request made then is returned
+    public Transaction requestMoney(Account user, double amount, String idempotencyKey) {
+        return IdempotencyCache.shared().getOrCreate(scoped(idempotencyKey), () -> requestMoney(user, amount));
+    }
+
+    //EFFECTS: returns pending money requests other accounts made of this account, waiting for it to accept them
+    public List<Transaction> getRequestsToPay() {
+        List<Transaction> requests = new ArrayList<>();
+        forEachTransaction(Transaction.Status.PENDING, transaction -> {
+            if (transaction.getType() == Transaction.Type.REQUEST && transaction.getSenderAccount() == this) {
+                requests.add(transaction);
+            }
+        });
+        return requests;
+    }
+
+    //EFFECTS: returns idempotency key scoped to this account, so different accounts may use the same keys
+    private String scoped(String idempotencyKey) {
+        return id + "/" + idempotencyKey;
+    }
+
     //REQUIRES: no duplicates in list
     //MODIFY: this
     //EFFECTS: new credit card is added to account's list of credit cards if valid
     public void addCreditCard(CreditCard newCard) {
         if (newCard.getIsValid()) {
             creditCards.add(newCard);
+            recordEvent(new CardAdded(newCard, getBalanceCents()));
         } else {
             System.out.println("Invalid credit card!");
         }
@@ -227,15 +705,32 @@ public class Account implements Writable {
         if (boosts.size() >= 2) {
             return false;
         }
-        boosts.add(boost);
+        if (boosts.add(boost)) {
+            boostEngine = new BoostEngine(boosts);
+            boostTypeMask = BoostEligibilityCache.maskOf(boosts);
+            recordEvent(new BoostAdded(boost, getBalanceCents()));
+        }
         return true;
     }
 
+    //MODIFY: this
+    //EFFECTS: purchases from this account also earn cashback from every matching rule of given catalog, on top of
+    //         the boosts added to this account; null stops using a catalog
+    public void useBoostCatalog(BoostCatalog catalog) {
+        boostCatalog = catalog;
+    }
+
+    public BoostCatalog getBoostCatalog() {
+        return boostCatalog;
+    }
+
     //MODIFY: this
     //EFFECTS: remove boost from this account, returns true if removed, false otherwise
     public Boolean removeBoost(Boost boost) {
         if (boosts.contains(boost)) {
             boosts.remove(boost);
+            boostEngine = new BoostEngine(boosts);
+            boostTypeMask = BoostEligibilityCache.maskOf(boosts);
             return true;
         } else {
             return false;
@@ -247,12 +742,22 @@ public class Account implements Writable {
     //EFFECTS: returns this account as a JSON object
     public JSONObject toJson() {
         JSONObject accountJson = new JSONObject();
-        accountJson.put("balance", balance);
+        accountJson.put("balance", getBalance());
         accountJson.put("id", id);
         accountJson.put("user", user.toJson());
         accountJson.put("creditCards", cardsToJson());
         accountJson.put("transactions", transactionsToJson());
         accountJson.put("boosts", boostsToJson());
+        accountJson.put("promotionWatermarks", new JSONObject(promotionWatermarks));
+        return accountJson;
+    }
+
+    //EFFECTS: returns id, user and balance of this account as a JSON object, as transactions refer to it
+    public JSONObject toSummaryJson() {
+        JSONObject accountJson = new JSONObject();
+        accountJson.put("user", user.toJson());
+        accountJson.put("balance", getBalance());
+        accountJson.put("id", id);
         return accountJson;
     }
 
@@ -271,7 +776,7 @@ public class Account implements Writable {
     private JSONArray transactionsToJson() {
         JSONArray jsonTransactionArray = new JSONArray();
 
-        for (Transaction t : transactions) {
+        for (Transaction t : transactions.all()) {
             jsonTransactionArray.put(t.toJson());
         }
 
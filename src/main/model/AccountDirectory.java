@@ -0,0 +1,93 @@
+package model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A directory of every known account, indexed by username, user id and account id so that a recipient typed into
+// the app can be resolved to the real Account in constant time
+public class AccountDirectory {
+    private final Map<String, Account> byUsername;  // normalized username -> account
+    private final Map<String, Account> byUserId;    // user id -> account
+    private final Map<String, Account> byId;        // account id -> account
+
+    //EFFECTS: creates an empty directory
+    public AccountDirectory() {
+        byUsername = new ConcurrentHashMap<>();
+        byUserId = new ConcurrentHashMap<>();
+        byId = new ConcurrentHashMap<>();
+    }
+
+    //EFFECTS: returns number of accounts in this directory
+    public int size() {
+        return byId.size();
+    }
+
+    //EFFECTS: returns a read-only view of every account in this directory
+    public Collection<Account> accounts() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    //REQUIRES: account has a user with a non-empty username
+    //MODIFY: this
+    //EFFECTS: indexes account by its username, user id and account id and returns true. If the username is held by
+    //         another copy of the same account (same account id, e.g. the account loaded again from file), that copy
+    //         is replaced. If it is taken by a different account, nothing is indexed and returns false
+    public boolean register(Account account) {
+        Account[] replaced = new Account[1];
+        Account indexed = byUsername.compute(normalize(account.getUser().getUsername()), (username, existing) -> {
+            if (existing == null || existing.getId().equals(account.getId())) {
+                replaced[0] = existing;
+                return account;
+            }
+            return existing;
+        });
+        if (indexed != account) {
+            return false;
+        }
+        if (replaced[0] != null && replaced[0] != account) {
+            byUserId.remove(replaced[0].getUser().getId(), replaced[0]);
+            byId.remove(replaced[0].getId(), replaced[0]);
+        }
+        byUserId.put(account.getUser().getId(), account);
+        byId.put(account.getId(), account);
+        return true;
+    }
+
+    //MODIFY: this
+    //EFFECTS: removes account from every index, returns true if it was registered, false otherwise
+    public boolean remove(Account account) {
+        if (!byUsername.remove(normalize(account.getUser().getUsername()), account)) {
+            return false;
+        }
+        byUserId.remove(account.getUser().getId(), account);
+        byId.remove(account.getId(), account);
+        return true;
+    }
+
+    //EFFECTS: returns account of the user with given username (case and leading $ are ignored), null if none
+    public Account findByUsername(String username) {
+        return byUsername.get(normalize(username));
+    }
+
+    //EFFECTS: returns account of the user with given user id, null if none
+    public Account findByUserId(String userId) {
+        return byUserId.get(userId);
+    }
+
+    //EFFECTS: returns account with given account id, null if none
+    public Account findById(String id) {
+        return byId.get(id);
+    }
+
+    //EFFECTS: returns username in the form it is indexed under, so "$Amazon" and "amazon" find the same account
+    private static String normalize(String username) {
+        String trimmed = username.trim();
+        if (trimmed.startsWith("$")) {
+            trimmed = trimmed.substring(1);
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+}
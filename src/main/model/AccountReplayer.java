@@ -0,0 +1,101 @@
+package model;
+
+import model.events.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Rebuilds an account from a snapshot by replaying the events recorded after it, in order. Counterparties of
+// replayed transactions are taken from a directory when they are in it, otherwise a placeholder account holding
+// only the counterparty's id and username stands in for them, as when an account is read from file
+public class AccountReplayer {
+    private final Account account;
+    private final AccountDirectory directory;           // may be null
+    private final Map<String, Account> placeholders;    // account id -> placeholder counterparty
+
+    //EFFECTS: creates a replayer that applies events to account, resolving counterparties through directory (null
+    //         if there is none)
+    public AccountReplayer(Account account, AccountDirectory directory) {
+        this.account = account;
+        this.directory = directory;
+        this.placeholders = new HashMap<>();
+    }
+
+    //MODIFY: this, account
+    //EFFECTS: applies event to account and sets its balance to the balance after the event. The account's event
+    //         listener is not told about replayed events
+    public void replay(AccountEvent event) {
+        AccountEventListener listener = account.getEventListener();
+        account.setEventListener(null);
+        try {
+            apply(event);
+            account.restoreBalanceCents(event.getBalanceAfterCents());
+        } finally {
+            account.setEventListener(listener);
+        }
+    }
+
+    //MODIFY: account
+    //EFFECTS: applies what event changed, apart from the balance
+    private void apply(AccountEvent event) {
+        if (event instanceof MoneyMovedEvent) {
+            applyMoneyMoved((MoneyMovedEvent) event);
+        } else if (event instanceof BoostAdded) {
+            account.addBoost(((BoostAdded) event).getBoost());
+        } else if (event instanceof CardAdded) {
+            account.addCreditCard(((CardAdded) event).getCard());
+        } else if (event instanceof FriendReferred && account.getUser() instanceof PersonalUser) {
+            ((PersonalUser) account.getUser()).restoreReferral(((FriendReferred) event).getEmail());
+        }
+    }
+
+    //MODIFY: account
+    //EFFECTS: adds the transaction of event to account as it was recorded, without settling it again. A settled
+    //         request replaces the pending request with the same id
+    private void applyMoneyMoved(MoneyMovedEvent event) {
+        boolean purchase = event instanceof PurchaseMade;
+        Account sender = resolve(event.getSenderId(), event.getSenderUsername(), false);
+        Account recipient = resolve(event.getRecipientId(), event.getRecipientUsername(), purchase);
+        if (event instanceof RequestSettled) {
+            removePending(event.getTransactionId());
+        }
+        account.addToTransactions(Transaction.restore(event.getTransactionId(), recipient, sender,
+                event.getAmountCents(), event.getDate(), event.getStatus(), event.getTransactionType()));
+    }
+
+    //MODIFY: account
+    //EFFECTS: removes the pending transaction with given id from account, if it has one
+    private void removePending(String transactionId) {
+        Transaction[] found = new Transaction[1];
+        account.forEachTransaction(Transaction.Status.PENDING, pending -> {
+            if (found[0] == null && pending.getId().equals(transactionId)) {
+                found[0] = pending;
+            }
+        });
+        if (found[0] != null) {
+            account.removeFromTransactions(found[0]);
+        }
+    }
+
+    //EFFECTS: returns account with given id: the replayed account itself, one from the directory, or a placeholder
+    private Account resolve(String id, String username, boolean business) {
+        if (id.equals(account.getId())) {
+            return account;
+        }
+        Account known = directory == null ? null : directory.findById(id);
+        if (known != null) {
+            return known;
+        }
+        return placeholders.computeIfAbsent(id, k -> placeholder(id, username, business));
+    }
+
+    //EFFECTS: returns an empty account with given id for a user with given username
+    private static Account placeholder(String id, String username, boolean business) {
+        User user = business
+                ? new BusinessUser(username, "", username, BusinessUser.BusinessType.OTHER)
+                : new PersonalUser(username, "", "", "");
+        Account placeholder = new Account(user, 0);
+        placeholder.setId(id);
+        return placeholder;
+    }
+}
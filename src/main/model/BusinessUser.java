@@ -26,6 +26,11 @@ public class BusinessUser extends User {
         return businessType;
     }
 
+    //setters
+    public void setBusinessType(BusinessType businessType) {
+        this.businessType = businessType;
+    }
+
     public Boolean referFriend(String email) {
         return false;
     }
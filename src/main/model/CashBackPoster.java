@@ -0,0 +1,94 @@
+package model;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// A scheduled job that posts the cashback accrued by each account in a directory once per period, as one CASHBACK
+// transaction per account, instead of a balance write per boost per purchase
+public class CashBackPoster {
+    private final AccountDirectory directory;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder postedCount;    // cashback transactions posted so far
+    private final LongAdder postedCents;    // cashback posted so far, in cents
+    private final LongAdder failedCount;    // scheduled postings that threw
+
+    //EFFECTS: creates a poster for the accounts in given directory; nothing is scheduled until start is called
+    public CashBackPoster(AccountDirectory directory) {
+        this.directory = directory;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cashback-poster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.postedCount = new LongAdder();
+        this.postedCents = new LongAdder();
+        this.failedCount = new LongAdder();
+    }
+
+    //REQUIRES: period > 0
+    //MODIFY: this
+    //EFFECTS: posts accrued cashback of every account once per given period, starting one period from now. An
+    //         account whose posting throws is logged and skipped until the next period, so one failure never stops
+    //         the schedule
+    public void start(long period, TimeUnit unit) {
+        scheduler.scheduleAtFixedRate(this::postAllScheduled, period, period, unit);
+    }
+
+    //MODIFY: this, accounts in directory
+    //EFFECTS: posts accrued cashback of every account in directory, returns number of transactions posted
+    public int postAll() {
+        int posted = 0;
+        for (Account account : directory.accounts()) {
+            if (post(account)) {
+                posted++;
+            }
+        }
+        return posted;
+    }
+
+    //MODIFY: this, accounts in directory
+    //EFFECTS: posts like postAll, but logs and counts an account whose posting throws and goes on with the others
+    private void postAllScheduled() {
+        for (Account account : directory.accounts()) {
+            try {
+                post(account);
+            } catch (RuntimeException e) {
+                failedCount.increment();
+                System.err.println("Could not post cashback of account " + account.getId() + ": " + e);
+            }
+        }
+    }
+
+    //MODIFY: this, account
+    //EFFECTS: posts accrued cashback of account, returns true if a transaction was posted
+    private boolean post(Account account) {
+        Transaction cashBack = account.postAccruedCashBack();
+        if (cashBack == null) {
+            return false;
+        }
+        postedCount.increment();
+        postedCents.add(cashBack.getAmountCents());
+        return true;
+    }
+
+    public long getPostedCount() {
+        return postedCount.sum();
+    }
+
+    public long getPostedCents() {
+        return postedCents.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    //MODIFY: this
+    //EFFECTS: stops scheduled posting, then posts whatever has accrued so it is not left behind
+    public void shutdown() {
+        scheduler.shutdown();
+        postAll();
+    }
+}
@@ -0,0 +1,352 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// A transaction history for high-volume accounts (e.g. busy merchants). Instead of one Transaction object per row,
+// each field is kept in its own primitive array, so a row costs about 34 bytes. Accounts on either side of a
+// transaction are stored as int handles into a table of distinct counterparties. Transaction objects are only
+// materialized, as flyweight copies of a row, when a caller reads one from a view. Pending rows are the exception:
+// they keep the Transaction they were added with and hand out that instance, so a request is settled through one
+// object only and can never be completed once on a copy and again on the original.
+public class ColumnarTransactionHistory implements TransactionHistory {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long LEGACY_ID = -1;          // id column value for rows whose id is kept in legacyIds
+    private static final Transaction.Status[] STATUSES = Transaction.Status.values();
+    private static final Transaction.Type[] TYPES = Transaction.Type.values();
+
+    private long[] ids;                 // compact ids parsed back to longs
+    private long[] amounts;             // in cents
+    private int[] dates;                // epoch days
+    private byte[] statuses;            // Transaction.Status ordinals
+    private byte[] types;               // Transaction.Type ordinals
+    private int[] senders;              // counterparty handles
+    private int[] recipients;           // counterparty handles
+    private int size;
+
+    private final List<Account> counterparties;                    // handle -> account
+    private final Map<Account, Integer> handles;                   // account -> handle
+    private Map<Integer, String> legacyIds;                        // row -> id that is not in compact form
+    private final Map<String, RowList> pendingRows;                // id -> rows, for PENDING rows only; a
+                                                                   // transaction with itself has two rows
+    private Map<Integer, Transaction> pendingTransactions;         // row -> the instance added, for PENDING rows
+    private final Map<Transaction.Status, RowList> rowsByStatus;   // rows bucketed by status
+    private final Map<Transaction.Status, List<Transaction>> byStatusView;
+    private final List<Transaction> allView;
+
+    //EFFECTS: creates an empty history for given account
+    public ColumnarTransactionHistory(Account owner) {
+        allocate(INITIAL_CAPACITY);
+        counterparties = new ArrayList<>();
+        handles = new IdentityHashMap<>();
+        legacyIds = new HashMap<>();
+        pendingRows = new HashMap<>();
+        pendingTransactions = new HashMap<>();
+        rowsByStatus = new EnumMap<>(Transaction.Status.class);
+        byStatusView = new EnumMap<>(Transaction.Status.class);
+        for (Transaction.Status status : STATUSES) {
+            RowList rows = new RowList(INITIAL_CAPACITY);
+            rowsByStatus.put(status, rows);
+            byStatusView.put(status, new RowView(rows));
+        }
+        allView = new AllRowsView();
+        handleOf(owner);
+    }
+
+    //EFFECTS: creates a copy of the rows of source as they are now, holding only what materialize needs: the
+    //         columns, legacy ids and counterparties, but no status indexes or pending instances
+    private ColumnarTransactionHistory(ColumnarTransactionHistory source) {
+        size = source.size;
+        ids = Arrays.copyOf(source.ids, size);
+        amounts = Arrays.copyOf(source.amounts, size);
+        dates = Arrays.copyOf(source.dates, size);
+        statuses = Arrays.copyOf(source.statuses, size);
+        types = Arrays.copyOf(source.types, size);
+        senders = Arrays.copyOf(source.senders, size);
+        recipients = Arrays.copyOf(source.recipients, size);
+        counterparties = new ArrayList<>(source.counterparties);
+        handles = new IdentityHashMap<>();
+        legacyIds = new HashMap<>(source.legacyIds);
+        pendingRows = new HashMap<>();
+        pendingTransactions = new HashMap<>();
+        rowsByStatus = new EnumMap<>(Transaction.Status.class);
+        byStatusView = new EnumMap<>(Transaction.Status.class);
+        allView = new AllRowsView();
+    }
+
+    @Override
+    public void add(Transaction transaction) {
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = encodeId(row, transaction.getId());
+        amounts[row] = transaction.getAmountCents();
+        dates[row] = (int) transaction.getDate().toEpochDay();
+        statuses[row] = (byte) transaction.getStatus().ordinal();
+        types[row] = (byte) transaction.getType().ordinal();
+        senders[row] = handleOf(transaction.getSenderAccount());
+        recipients[row] = handleOf(transaction.getRecipientAccount());
+        if (transaction.getStatus() == Transaction.Status.PENDING) {
+            pendingTransactions.put(row, transaction);
+        }
+        index(row);
+    }
+
+    // Removing is O(n): later rows shift down and the status indexes are rebuilt
+    @Override
+    public boolean remove(Transaction transaction) {
+        int row = findRow(transaction.getId());
+        if (row < 0) {
+            return false;
+        }
+        shiftDown(row);
+        reindex(row);
+        return true;
+    }
+
+    // Only pending rows ever change status, so this is a lookup in the pending index and never a scan. Every row
+    // of the transaction moves, like every occurrence does in ObjectTransactionHistory
+    @Override
+    public void statusChanged(Transaction transaction, Transaction.Status previousStatus) {
+        if (previousStatus != Transaction.Status.PENDING) {
+            return;
+        }
+        RowList rows = pendingRows.remove(transaction.getId());
+        if (rows == null) {
+            return;
+        }
+        for (int i = 0; i < rows.size; i++) {
+            int row = rows.rows[i];
+            pendingTransactions.remove(row);
+            rowsByStatus.get(previousStatus).removeValue(row);
+            statuses[row] = (byte) transaction.getStatus().ordinal();
+            index(row);
+        }
+    }
+
+    @Override
+    public List<Transaction> withStatus(Transaction.Status status) {
+        return byStatusView.get(status);
+    }
+
+    @Override
+    public int count(Transaction.Status status) {
+        return rowsByStatus.get(status).size;
+    }
+
+    @Override
+    public List<Transaction> all() {
+        return allView;
+    }
+
+    // Copies the primitive columns, about 34 bytes a row, and materializes rows only when they are read
+    @Override
+    public List<Transaction> snapshot() {
+        return new ColumnarTransactionHistory(this).allView;
+    }
+
+    //EFFECTS: returns number of distinct accounts referenced by this history, including its owner
+    public int getCounterpartyCount() {
+        return counterparties.size();
+    }
+
+    //EFFECTS: returns the instance added for given row if it is pending, otherwise a new Transaction holding the
+    //         fields of the row
+    private Transaction materialize(int row) {
+        Transaction pending = pendingTransactions.get(row);
+        if (pending != null) {
+            return pending;
+        }
+        return new Transaction(idOf(row), counterparties.get(recipients[row]), counterparties.get(senders[row]),
+                amounts[row], LocalDate.ofEpochDay(dates[row]), STATUSES[statuses[row]], TYPES[types[row]]);
+    }
+
+    //MODIFY: this
+    //EFFECTS: adds row to the bucket of its status, and to the pending index if it is pending
+    private void index(int row) {
+        Transaction.Status status = STATUSES[statuses[row]];
+        rowsByStatus.get(status).add(row);
+        if (status == Transaction.Status.PENDING) {
+            pendingRows.computeIfAbsent(idOf(row), id -> new RowList(1)).add(row);
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: returns the id column value for given id; ids not in compact form are kept in legacyIds instead
+    private long encodeId(int row, String id) {
+        long compact = IdGenerator.orderOf(id);
+        if (compact == LEGACY_ID) {
+            legacyIds.put(row, id);
+        }
+        return compact;
+    }
+
+    //EFFECTS: returns the id of given row
+    private String idOf(int row) {
+        if (ids[row] == LEGACY_ID) {
+            return legacyIds.get(row);
+        }
+        return IdGenerator.toCompactString(ids[row]);
+    }
+
+    //EFFECTS: returns the row holding given id, -1 if none. Compares the id column as longs, so rows are not
+    //         turned back into strings while scanning
+    private int findRow(String id) {
+        RowList pending = pendingRows.get(id);
+        if (pending != null) {
+            return pending.rows[0];
+        }
+        long compact = IdGenerator.orderOf(id);
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == compact && (compact != LEGACY_ID || id.equals(legacyIds.get(row)))) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    //MODIFY: this
+    //EFFECTS: returns handle of given account, adding it to the counterparty table if it is not there yet
+    private int handleOf(Account account) {
+        Integer handle = handles.get(account);
+        if (handle == null) {
+            handle = counterparties.size();
+            counterparties.add(account);
+            handles.put(account, handle);
+        }
+        return handle;
+    }
+
+    //MODIFY: this
+    //EFFECTS: removes given row by moving every later row down by one
+    private void shiftDown(int row) {
+        int moved = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, moved);
+        System.arraycopy(amounts, row + 1, amounts, row, moved);
+        System.arraycopy(dates, row + 1, dates, row, moved);
+        System.arraycopy(statuses, row + 1, statuses, row, moved);
+        System.arraycopy(types, row + 1, types, row, moved);
+        System.arraycopy(senders, row + 1, senders, row, moved);
+        System.arraycopy(recipients, row + 1, recipients, row, moved);
+        size--;
+    }
+
+    //MODIFY: this
+    //EFFECTS: rebuilds legacy ids, pending instances and status indexes after removedRow was shifted out
+    private void reindex(int removedRow) {
+        legacyIds = shiftKeys(legacyIds, removedRow);
+        pendingTransactions = shiftKeys(pendingTransactions, removedRow);
+        pendingRows.clear();
+        for (RowList rows : rowsByStatus.values()) {
+            rows.size = 0;
+        }
+        for (int row = 0; row < size; row++) {
+            index(row);
+        }
+    }
+
+    //EFFECTS: returns a copy of byRow without removedRow, with every later row moved down by one
+    private static <T> Map<Integer, T> shiftKeys(Map<Integer, T> byRow, int removedRow) {
+        Map<Integer, T> shifted = new HashMap<>();
+        for (Map.Entry<Integer, T> entry : byRow.entrySet()) {
+            int row = entry.getKey();
+            if (row != removedRow) {
+                shifted.put(row > removedRow ? row - 1 : row, entry.getValue());
+            }
+        }
+        return shifted;
+    }
+
+    //MODIFY: this
+    //EFFECTS: doubles the capacity of every column
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        types = Arrays.copyOf(types, capacity);
+        senders = Arrays.copyOf(senders, capacity);
+        recipients = Arrays.copyOf(recipients, capacity);
+    }
+
+    //MODIFY: this
+    //EFFECTS: creates empty columns with given capacity
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        amounts = new long[capacity];
+        dates = new int[capacity];
+        statuses = new byte[capacity];
+        types = new byte[capacity];
+        senders = new int[capacity];
+        recipients = new int[capacity];
+    }
+
+    // A growable list of row numbers
+    private static class RowList {
+        private int[] rows;
+        private int size;
+
+        //REQUIRES: capacity > 0
+        //EFFECTS: creates an empty list with room for capacity rows
+        private RowList(int capacity) {
+            rows = new int[capacity];
+        }
+
+        //MODIFY: this
+        //EFFECTS: appends row
+        private void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        //MODIFY: this
+        //EFFECTS: removes first occurrence of row, keeping the order of the others
+        private void removeValue(int row) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == row) {
+                    System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+
+    // Read-only view of the rows in one status bucket
+    private class RowView extends AbstractList<Transaction> {
+        private final RowList rows;
+
+        private RowView(RowList rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Transaction get(int index) {
+            Objects.checkIndex(index, rows.size);
+            return materialize(rows.rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return rows.size;
+        }
+    }
+
+    // Read-only view of every row, in the order added
+    private class AllRowsView extends AbstractList<Transaction> {
+        @Override
+        public Transaction get(int index) {
+            Objects.checkIndex(index, size);
+            return materialize(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
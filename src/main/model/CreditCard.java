@@ -4,7 +4,6 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.time.LocalDate; // import the LocalDate class
-import java.util.UUID;
 
 //Represents a credit card with type, number, expiry month and year
 public class CreditCard implements Writable {
@@ -26,7 +25,7 @@ public class CreditCard implements Writable {
         this.cardNumber = cardNumber;
         this.expiryMonth = expiryMonth;
         this.expiryYear = expiryYear;
-        this.id = UUID.randomUUID().toString();
+        this.id = IdGenerator.newId();
         validateCard();
     }
 
@@ -0,0 +1,94 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Generates time-ordered, unique 64-bit ids (Snowflake style) for transactions, accounts, users and cards.
+// An id is laid out as 41 bits of milliseconds since 2021-01-01, 10 bits of node id and 12 bits of sequence, so ids
+// from different nodes never collide and ids from one node sort by creation time.
+public final class IdGenerator {
+    public static final int MAX_NODE_ID = 1023;
+    private static final long EPOCH = 1609459200000L;    // 2021-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int RADIX = 36;
+    private static final int MAX_COMPACT_LENGTH = 13;
+    private static final IdGenerator shared = new IdGenerator(Integer.getInteger("cashapp.node", 0));
+
+    private final long nodeId;
+    private final AtomicLong lastTick;  // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last id
+
+    //REQUIRES: 0 <= nodeId <= MAX_NODE_ID
+    //EFFECTS: creates a generator for given node; throws IllegalArgumentException if node id is out of range
+    public IdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.lastTick = new AtomicLong();
+    }
+
+    //EFFECTS: returns a new id from the shared generator in compact string form
+    public static String newId() {
+        return shared.next();
+    }
+
+    //MODIFY: this
+    //EFFECTS: returns a new id in compact string form
+    public String next() {
+        return toCompactString(nextLong());
+    }
+
+    //MODIFY: this
+    //EFFECTS: returns a new id, greater than every id this generator returned before. Never blocks: if more than
+    //         4096 ids are taken in one millisecond, the sequence carries into the next millisecond
+    public long nextLong() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = lastTick.get();
+            next = Math.max(now, prev + 1);
+        } while (!lastTick.compareAndSet(prev, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    //EFFECTS: returns the node id encoded in given id
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    //EFFECTS: returns the creation time encoded in given id, in milliseconds since the Unix epoch
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    //EFFECTS: returns the compact base-36 form of id used in the model and in JSON
+    public static String toCompactString(long id) {
+        return Long.toString(id, RADIX);
+    }
+
+    //EFFECTS: returns the id written in compact form, throws NumberFormatException if it is not one (e.g. a UUID
+    //         from an older save file)
+    public static long fromCompactString(String compact) {
+        return Long.parseLong(compact, RADIX);
+    }
+
+    //EFFECTS: returns id as a long if it is in the compact form generated here, -1 otherwise (e.g. a UUID from an
+    //         older save file). Compact ids from one node compare in the order they were created
+    public static long orderOf(String id) {
+        if (id.length() <= MAX_COMPACT_LENGTH) {
+            try {
+                long compact = fromCompactString(id);
+                if (compact >= 0 && toCompactString(compact).equals(id)) {
+                    return compact;
+                }
+            } catch (NumberFormatException e) {
+                // not generated here, fall through
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,172 @@
+package model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Remembers the transaction made for each client idempotency key, so a retried or double-clicked operation gets the
+// original transaction back instead of making a second one. Keys are spread over segments, each with its own lock
+// and a share of the entry cap, so lookups stay O(1) and threads working on different keys rarely wait on each
+// other. Entries expire after a fixed time; when a segment is full its oldest entry is dropped to make room.
+public class IdempotencyCache {
+    public static final int DEFAULT_SEGMENTS = 16;
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 20;
+    public static final long DEFAULT_TIME_TO_LIVE_HOURS = 24;
+    private static final IdempotencyCache SHARED = new IdempotencyCache(DEFAULT_SEGMENTS, DEFAULT_MAX_ENTRIES,
+            DEFAULT_TIME_TO_LIVE_HOURS, TimeUnit.HOURS, System::nanoTime);
+
+    private final Segment[] segments;
+    private final long timeToLive;          // in nanoseconds
+    private final LongSupplier clock;       // in nanoseconds
+
+    //REQUIRES: segments > 0, maxEntries >= segments, timeToLive > 0
+    //EFFECTS: creates an empty cache of given number of segments holding at most maxEntries keys, each remembered
+    //         for timeToLive
+    public IdempotencyCache(int segments, int maxEntries, long timeToLive, TimeUnit unit) {
+        this(segments, maxEntries, timeToLive, unit, System::nanoTime);
+    }
+
+    //REQUIRES: segments > 0, maxEntries >= segments, timeToLive > 0
+    //EFFECTS: creates an empty cache like above that reads the time in nanoseconds from clock
+    public IdempotencyCache(int segments, int maxEntries, long timeToLive, TimeUnit unit, LongSupplier clock) {
+        this.segments = new Segment[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new Segment(maxEntries / segments);
+        }
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.clock = clock;
+    }
+
+    //EFFECTS: returns the cache shared by every account in this app
+    public static IdempotencyCache shared() {
+        return SHARED;
+    }
+
+    //MODIFY: this
+    //EFFECTS: returns the transaction remembered for key if it has not expired. Otherwise runs operation, remembers
+    //         its transaction for key and returns it. A caller that finds operation still running for key waits for
+    //         it and gets the same transaction. If operation throws, nothing is remembered and the exception is
+    //         rethrown to every caller waiting on it
+    public Transaction getOrCreate(String key, Supplier<Transaction> operation) {
+        Segment segment = segmentOf(key);
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        CompletableFuture<Transaction> original = segment.putIfAbsent(key, result, clock.getAsLong());
+        if (original != null) {
+            return join(original);
+        }
+        try {
+            result.complete(operation.get());
+        } catch (RuntimeException e) {
+            segment.remove(key, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+        return result.join();
+    }
+
+    //EFFECTS: returns the transaction remembered for key, null if there is none or it has expired
+    public Transaction get(String key) {
+        CompletableFuture<Transaction> result = segmentOf(key).get(key, clock.getAsLong());
+        return result == null || !result.isDone() || result.isCompletedExceptionally() ? null : result.join();
+    }
+
+    //EFFECTS: returns number of keys remembered, including expired ones not yet dropped
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    //EFFECTS: returns segment holding key
+    private Segment segmentOf(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    //EFFECTS: waits for result and returns its transaction, rethrowing what the operation threw if it failed
+    private static Transaction join(CompletableFuture<Transaction> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    // One lock's worth of keys, kept in the order they were added so the oldest are dropped first
+    private final class Segment {
+        private final int capacity;
+        private final LinkedHashMap<String, Entry> entries;
+
+        private Segment(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.entries = new LinkedHashMap<>();
+        }
+
+        //MODIFY: this
+        //EFFECTS: returns the live result for key if there is one, otherwise drops expired entries, makes room and
+        //         adds result for key, returning null
+        private synchronized CompletableFuture<Transaction> putIfAbsent(String key,
+                                                                        CompletableFuture<Transaction> result,
+                                                                        long now) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                return entry.result;
+            }
+            entries.remove(key);
+            evict(now);
+            entries.put(key, new Entry(result, now + timeToLive));
+            return null;
+        }
+
+        //EFFECTS: returns the live result for key, null if there is none
+        private synchronized CompletableFuture<Transaction> get(String key, long now) {
+            Entry entry = entries.get(key);
+            return entry == null || entry.expiresAt - now <= 0 ? null : entry.result;
+        }
+
+        //MODIFY: this
+        //EFFECTS: removes key if it still maps to result
+        private synchronized void remove(String key, CompletableFuture<Transaction> result) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.result == result) {
+                entries.remove(key);
+            }
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        //MODIFY: this
+        //EFFECTS: drops expired entries from the oldest end, then the oldest entry if the segment is still full
+        private void evict(long now) {
+            Iterator<Map.Entry<String, Entry>> oldest = entries.entrySet().iterator();
+            while (oldest.hasNext()) {
+                Entry entry = oldest.next().getValue();
+                if (entry.expiresAt - now > 0 && entries.size() < capacity) {
+                    return;
+                }
+                oldest.remove();
+            }
+        }
+    }
+
+    // The result remembered for a key and when it expires, in nanoseconds
+    private static final class Entry {
+        private final CompletableFuture<Transaction> result;
+        private final long expiresAt;
+
+        private Entry(CompletableFuture<Transaction> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
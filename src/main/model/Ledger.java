@@ -0,0 +1,188 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// An append-only, double-entry log of balance changes. Each posting moves an amount from a debit side to a credit
+// side; a side is the id of a Cash App account or, when null, the outside party implied by the posting's kind (a
+// card for deposits and withdrawals, the cashback or referral pool, or the opening balance). Accounts post to the
+// ledger they were created with or given, so each app keeps its own ledger and only ids, never accounts, are kept.
+// Appends are lock-free: a writer claims the next sequence number with one atomic increment and stores its posting
+// in a fixed slot of a chunk, so writers never wait on each other. Every posting is kept: when the chunk directory
+// runs out of room it is doubled, which is the only time a writer takes a lock. Balances are running totals kept
+// as postings are appended.
+public final class Ledger {
+    public static final int DEFAULT_INITIAL_CHUNKS = 1 << 4;       // room for about a quarter million postings
+    private static final int MAX_CHUNKS = Integer.MAX_VALUE - 8;    // largest array the JVM reliably allocates
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // What caused a balance change
+    public enum Kind {
+        OPENING, TRANSFER, DEPOSIT, WITHDRAWAL, CASHBACK, REFERRAL
+    }
+
+    private final AtomicLong nextSequence;
+    private volatile AtomicReferenceArray<Chunk> chunks;        // chunk number -> chunk, grown as postings arrive
+    private final Map<String, LongAdder> balances;              // account id -> running balance in cents
+
+    //EFFECTS: creates an empty ledger with room for the default number of chunks
+    public Ledger() {
+        this(DEFAULT_INITIAL_CHUNKS);
+    }
+
+    //REQUIRES: initialChunks > 0
+    //EFFECTS: creates an empty ledger with room for initialChunks chunks before its chunk directory has to grow
+    public Ledger(int initialChunks) {
+        nextSequence = new AtomicLong();
+        chunks = new AtomicReferenceArray<>(initialChunks);
+        balances = new ConcurrentHashMap<>();
+    }
+
+    //REQUIRES: amount > 0, debitId and creditId are not both null
+    //MODIFY: this
+    //EFFECTS: appends a posting moving amount cents from account debitId to account creditId and returns it.
+    //         Throws IllegalStateException, and changes no balance, if the ledger cannot hold another posting
+    public Posting append(Kind kind, String debitId, String creditId, long amount) {
+        long sequence = nextSequence.getAndIncrement();
+        Posting posting = new Posting(sequence, kind, debitId, creditId, amount);
+        chunkOf(sequence).postings.set((int) (sequence & CHUNK_MASK), posting);
+        if (debitId != null) {
+            balances.computeIfAbsent(debitId, id -> new LongAdder()).add(-amount);
+        }
+        if (creditId != null) {
+            balances.computeIfAbsent(creditId, id -> new LongAdder()).add(amount);
+        }
+        return posting;
+    }
+
+    //EFFECTS: returns number of postings appended so far, some of which may still be being written
+    public long size() {
+        return nextSequence.get();
+    }
+
+    //EFFECTS: returns posting with given sequence number, null if it has not been written yet
+    public Posting get(long sequence) {
+        if (sequence < 0 || sequence >= nextSequence.get()) {
+            return null;
+        }
+        long number = sequence >>> CHUNK_BITS;
+        AtomicReferenceArray<Chunk> directory = chunks;
+        Chunk chunk = number < directory.length() ? directory.get((int) number) : null;
+        return chunk == null ? null : chunk.postings.get((int) (sequence & CHUNK_MASK));
+    }
+
+    //EFFECTS: returns the net of every posting of account with given id in this ledger, in cents
+    public long balanceOf(String accountId) {
+        LongAdder balance = balances.get(accountId);
+        return balance == null ? 0 : balance.sum();
+    }
+
+    //EFFECTS: returns postings with account accountId on either side, in order, up to the first one still being
+    //         written. Scans every posting, so it is meant for audits rather than for the hot path
+    public List<Posting> postingsOf(String accountId) {
+        List<Posting> postings = new ArrayList<>();
+        long size = nextSequence.get();
+        for (long sequence = 0; sequence < size; sequence++) {
+            Posting posting = get(sequence);
+            if (posting == null) {
+                break;
+            }
+            if (accountId.equals(posting.getDebitId()) || accountId.equals(posting.getCreditId())) {
+                postings.add(posting);
+            }
+        }
+        return postings;
+    }
+
+    //MODIFY: this
+    //EFFECTS: returns chunk holding given sequence number, creating it if no writer has yet and growing the chunk
+    //         directory if it has no room for it. Throws IllegalStateException if the directory cannot grow enough
+    private Chunk chunkOf(long sequence) {
+        long number = sequence >>> CHUNK_BITS;
+        AtomicReferenceArray<Chunk> directory = chunks;
+        if (number >= directory.length()) {
+            directory = grow(number);
+        }
+        Chunk chunk = directory.get((int) number);
+        if (chunk == null) {
+            directory.compareAndSet((int) number, null, new Chunk());
+            chunk = directory.get((int) number);
+        }
+        return chunk;
+    }
+
+    //MODIFY: this
+    //EFFECTS: returns a chunk directory with room for chunk number, doubling the current one if needed. Every slot
+    //         of the old directory is filled before it is copied, so a writer still holding the old directory
+    //         always finds the chunk that was copied and no posting is lost
+    private synchronized AtomicReferenceArray<Chunk> grow(long number) {
+        AtomicReferenceArray<Chunk> directory = chunks;
+        if (number < directory.length()) {
+            return directory;
+        }
+        if (number >= MAX_CHUNKS) {
+            throw new IllegalStateException("Ledger is full: it cannot hold more than " + MAX_CHUNKS + " chunks");
+        }
+        int length = (int) Math.min(MAX_CHUNKS, Math.max(number + 1, 2L * directory.length()));
+        AtomicReferenceArray<Chunk> grown = new AtomicReferenceArray<>(length);
+        for (int i = 0; i < directory.length(); i++) {
+            directory.compareAndSet(i, null, new Chunk());
+            grown.set(i, directory.get(i));
+        }
+        chunks = grown;
+        return grown;
+    }
+
+    // A fixed run of CHUNK_SIZE postings, starting at sequence (its chunk number) << CHUNK_BITS
+    private static final class Chunk {
+        private final AtomicReferenceArray<Posting> postings;
+
+        private Chunk() {
+            this.postings = new AtomicReferenceArray<>(CHUNK_SIZE);
+        }
+    }
+
+    // One balanced entry of the ledger: amount cents leave the debit side and arrive on the credit side
+    public static final class Posting {
+        private final long sequence;
+        private final Kind kind;
+        private final String debitId;     // null for the outside party of kind
+        private final String creditId;    // null for the outside party of kind
+        private final long amount;        // in cents
+
+        private Posting(long sequence, Kind kind, String debitId, String creditId, long amount) {
+            this.sequence = sequence;
+            this.kind = kind;
+            this.debitId = debitId;
+            this.creditId = creditId;
+            this.amount = amount;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getDebitId() {
+            return debitId;
+        }
+
+        public String getCreditId() {
+            return creditId;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package model;
+
+// Fixed-point money helpers: every amount in the model is held as a whole number of cents in a long
+public final class Money {
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private Money() {
+    }
+
+    //EFFECTS: returns given dollar amount in cents, rounded half up to the nearest cent
+    public static long toCents(double dollars) {
+        return Math.round(dollars * CENTS_PER_DOLLAR);
+    }
+
+    //EFFECTS: returns given amount of cents in dollars
+    public static double toDollars(long cents) {
+        return (double) cents / CENTS_PER_DOLLAR;
+    }
+
+    //REQUIRES: cents >= 0 and percent >= 0
+    //EFFECTS: returns percent of given amount of cents, rounded half up to the nearest cent
+    public static long percentOf(long cents, int percent) {
+        return (cents * percent + 50) / 100;
+    }
+}
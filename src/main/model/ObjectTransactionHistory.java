@@ -0,0 +1,98 @@
+package model;
+
+import java.util.*;
+
+// The default transaction history: keeps the Transaction objects themselves in a list plus one list per status
+public class ObjectTransactionHistory implements TransactionHistory {
+    private final List<Transaction> transactions;                    // every transaction, in order added
+    private final Map<Transaction.Status, List<Transaction>> byStatus;     // transactions bucketed by status
+    private final Map<Transaction.Status, List<Transaction>> byStatusView; // read-only views of the buckets
+
+    //EFFECTS: creates an empty history
+    public ObjectTransactionHistory() {
+        transactions = new ArrayList<>();
+        byStatus = new EnumMap<>(Transaction.Status.class);
+        byStatusView = new EnumMap<>(Transaction.Status.class);
+        for (Transaction.Status status : Transaction.Status.values()) {
+            List<Transaction> bucket = new ArrayList<>();
+            byStatus.put(status, bucket);
+            byStatusView.put(status, Collections.unmodifiableList(bucket));
+        }
+    }
+
+    @Override
+    public void add(Transaction transaction) {
+        transactions.add(transaction);
+        byStatus.get(transaction.getStatus()).add(transaction);
+    }
+
+    @Override
+    public boolean remove(Transaction transaction) {
+        if (!transactions.remove(transaction)) {
+            return false;
+        }
+        byStatus.get(transaction.getStatus()).remove(transaction);
+        return true;
+    }
+
+    // Costs O(k) in the size of the previous status bucket
+    @Override
+    public void statusChanged(Transaction transaction, Transaction.Status previousStatus) {
+        List<Transaction> previous = byStatus.get(previousStatus);
+        List<Transaction> current = byStatus.get(transaction.getStatus());
+        while (previous.remove(transaction)) {
+            current.add(transaction);
+        }
+    }
+
+    @Override
+    public List<Transaction> withStatus(Transaction.Status status) {
+        return byStatusView.get(status);
+    }
+
+    @Override
+    public int count(Transaction.Status status) {
+        return byStatus.get(status).size();
+    }
+
+    @Override
+    public List<Transaction> all() {
+        return Collections.unmodifiableList(transactions);
+    }
+
+    // Copies the references and statuses only; a transaction whose status changed since is handed out as a copy
+    // with the status it had
+    @Override
+    public List<Transaction> snapshot() {
+        return new Snapshot(transactions.toArray(new Transaction[0]));
+    }
+
+    // Every transaction of this history at one point in time, with the status each had then
+    private static class Snapshot extends AbstractList<Transaction> {
+        private final Transaction[] transactions;
+        private final Transaction.Status[] statuses;
+
+        private Snapshot(Transaction[] transactions) {
+            this.transactions = transactions;
+            this.statuses = new Transaction.Status[transactions.length];
+            for (int i = 0; i < transactions.length; i++) {
+                statuses[i] = transactions[i].getStatus();
+            }
+        }
+
+        @Override
+        public Transaction get(int index) {
+            Transaction t = transactions[index];
+            if (t.getStatus() == statuses[index]) {
+                return t;
+            }
+            return Transaction.restore(t.getId(), t.getRecipientAccount(), t.getSenderAccount(), t.getAmountCents(),
+                    t.getDate(), statuses[index], t.getType());
+        }
+
+        @Override
+        public int size() {
+            return transactions.length;
+        }
+    }
+}
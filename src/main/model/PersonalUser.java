@@ -1,5 +1,6 @@
 package model;
 
+import model.events.FriendReferred;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -32,6 +33,9 @@ public class PersonalUser extends User {
             referralCount++;
             referredFriends.add(email);
             referralReward();
+            if (account != null) {
+                account.recordEvent(new FriendReferred(email, account.getBalanceCents()));
+            }
             return true;
         } else {
             System.out.println("This email is not valid! Try again!");
@@ -40,12 +44,23 @@ public class PersonalUser extends User {
 
     }
 
+    //MODIFY: this
+    //EFFECTS: adds email to referred friends while rebuilding this user's account from its events; the reward is
+    //         not paid again, since the replayed balance already holds it
+    void restoreReferral(String email) {
+        referredFriends.add(email);
+        referralCount++;
+        if (referralCount >= referralCountForReward) {
+            referralCount -= referralCountForReward;
+        }
+    }
+
     //MODIFY: this
     //EFFECTS: if referral count is >= number needed for reward, account balance is incremented with cashback and
     // returns true, false otherwise
     public Boolean referralReward() {
         if (referralCount >= referralCountForReward) {
-            this.account.incrementBalance(cashBackForReferral);
+            this.account.incrementBalanceCents(Money.toCents(cashBackForReferral), Ledger.Kind.REFERRAL);
             referralCount -= referralCountForReward;
             return true;
         }
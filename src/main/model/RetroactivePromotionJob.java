@@ -0,0 +1,153 @@
+package model;
+
+import model.boosts.Boost;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// A batch job for retroactive promotions, e.g. "Foodie cashback applies to last month's purchases". It scans the
+// completed purchases of every account in a directory with fork-join parallelism, one shard of accounts per task,
+// and posts each account's cashback as one CASHBACK transaction. Each account keeps a watermark per promotion, the
+// newest transaction id the promotion has considered there, and is saved with it. Running the promotion again, from
+// a new job or after a restart, only looks at transactions above the watermark, so no purchase is paid twice and
+// nothing grows with the number of purchases credited.
+public class RetroactivePromotionJob {
+    public static final int DEFAULT_SHARD_SIZE = 1024;
+
+    private final String promotionId;
+    private final Boost boost;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int shardSize;
+    private final LongAdder creditedPurchases;          // purchases this job has paid out on
+    private final LongAdder creditedCents;
+    private volatile List<Account> accounts;            // accounts of the current run
+    private volatile AtomicIntegerArray shardProgress;  // accounts finished so far in each shard of the current run
+
+    //REQUIRES: from is not after to, shardSize > 0
+    //EFFECTS: creates a job for promotion promotionId that applies boost to purchases dated from..to inclusive,
+    //         shardSize accounts per task
+    public RetroactivePromotionJob(String promotionId, Boost boost, LocalDate from, LocalDate to, int shardSize) {
+        this.promotionId = promotionId;
+        this.boost = boost;
+        this.from = from;
+        this.to = to;
+        this.shardSize = shardSize;
+        this.creditedPurchases = new LongAdder();
+        this.creditedCents = new LongAdder();
+        this.accounts = new ArrayList<>();
+        this.shardProgress = new AtomicIntegerArray(0);
+    }
+
+    //MODIFY: this, accounts in directory
+    //EFFECTS: credits every qualifying purchase, by an account in directory, that is above the account's watermark
+    //         for this promotion, on given pool
+    public synchronized void run(AccountDirectory directory, ForkJoinPool pool) {
+        accounts = new ArrayList<>(directory.accounts());
+        shardProgress = new AtomicIntegerArray((accounts.size() + shardSize - 1) / shardSize);
+        pool.invoke(new Shards(0, shardProgress.length()));
+    }
+
+    public int getShardCount() {
+        return shardProgress.length();
+    }
+
+    //REQUIRES: 0 <= shard < getShardCount()
+    //EFFECTS: returns number of accounts in given shard of the current run
+    public int getShardSize(int shard) {
+        return Math.min(shardSize, accounts.size() - shard * shardSize);
+    }
+
+    //REQUIRES: 0 <= shard < getShardCount()
+    //EFFECTS: returns number of accounts in given shard that have been scanned so far
+    public int getShardProgress(int shard) {
+        return shardProgress.get(shard);
+    }
+
+    public String getPromotionId() {
+        return promotionId;
+    }
+
+    public long getCreditedPurchaseCount() {
+        return creditedPurchases.sum();
+    }
+
+    public long getCreditedCents() {
+        return creditedCents.sum();
+    }
+
+    //MODIFY: this, account
+    //EFFECTS: credits the purchases of account that qualify and are above its watermark, in one transaction, and
+    //         moves the watermark past every transaction scanned. Transactions with ids from older save files order
+    //         below every generated id, so they are only considered on the first run. If another run moved the
+    //         watermark meanwhile, that run pays instead and nothing is credited here
+    private void scan(Account account) {
+        long watermark = account.getPromotionWatermark(promotionId);
+        long[] newest = {Math.max(watermark, -1)};
+        long[] cents = {0};
+        int[] purchases = {0};
+        account.forEachTransaction(Transaction.Status.COMPLETE, transaction -> {
+            long order = IdGenerator.orderOf(transaction.getId());
+            if (order > watermark) {
+                newest[0] = Math.max(newest[0], order);
+                if (qualifies(account, transaction)) {
+                    cents[0] += Money.percentOf(transaction.getAmountCents(), boost.getCashBackPercent());
+                    purchases[0]++;
+                }
+            }
+        });
+        if (account.advancePromotionWatermark(promotionId, watermark, newest[0]) && cents[0] > 0) {
+            account.postCashBack(cents[0]);
+            creditedCents.add(cents[0]);
+            creditedPurchases.add(purchases[0]);
+        }
+    }
+
+    //EFFECTS: returns true if purchase was made by account from a business, in the date window, and meets the
+    //         business type and minimum amount of the boost
+    private boolean qualifies(Account account, Transaction purchase) {
+        if (purchase.getType() != Transaction.Type.EXCHANGE || purchase.getSenderAccount() != account
+                || !(purchase.getRecipient() instanceof BusinessUser)
+                || purchase.getDate().isBefore(from) || purchase.getDate().isAfter(to)) {
+            return false;
+        }
+        Set<BusinessUser.BusinessType> types = boost.getBusinessTypes();
+        return purchase.getAmountCents() >= boost.getMinimumAmountCents()
+                && (types.isEmpty() || types.contains(((BusinessUser) purchase.getRecipient()).getBusinessType()));
+    }
+
+    // Scans shards first..last-1, splitting in half until a task holds one shard
+    private class Shards extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int first;
+        private final int last;
+
+        private Shards(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first > 1) {
+                int middle = (first + last) >>> 1;
+                invokeAll(new Shards(first, middle), new Shards(middle, last));
+                return;
+            }
+            for (int shard = first; shard < last; shard++) {
+                int end = Math.min(accounts.size(), (shard + 1) * shardSize);
+                for (int i = shard * shardSize; i < end; i++) {
+                    scan(accounts.get(i));
+                    shardProgress.incrementAndGet(shard);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package model;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Settles money requests off the caller's thread once their payer accepts them. Accepted requests wait in a bounded
+// queue and a fixed pool of workers runs completeTransaction on them, so the app can accept a request and return
+// right away. Only the account a request is made of can accept it, so no one can pull money from another account
+// just by requesting it.
+public class SettlementEngine {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final ThreadPoolExecutor workers;
+    private final LongAdder settledCount;           // requests that completed
+    private final LongAdder failedCount;            // requests that failed for lack of funds
+    private final LongAdder totalLatency;           // nanoseconds from submit to settled, summed over all requests
+    private final LongAccumulator maxLatency;       // longest nanoseconds from submit to settled
+
+    //EFFECTS: creates an engine with one worker per processor and the default queue capacity
+    public SettlementEngine() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    //REQUIRES: parallelism > 0 and queueCapacity > 0
+    //EFFECTS: creates an engine with given number of workers and room for queueCapacity waiting requests
+    public SettlementEngine(int parallelism, int queueCapacity) {
+        workers = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new WorkerFactory());
+        settledCount = new LongAdder();
+        failedCount = new LongAdder();
+        totalLatency = new LongAdder();
+        maxLatency = new LongAccumulator(Math::max, 0);
+    }
+
+    //MODIFY: this
+    //EFFECTS: queues request for settlement on behalf of payer and returns true. Returns false if payer is not the
+    //         account request is made of, if transaction is not a pending request, or if the queue is full or the
+    //         engine is shut down
+    public boolean accept(Account payer, Transaction request) {
+        if (request.getType() != Transaction.Type.REQUEST || request.getStatus() != Transaction.Status.PENDING
+                || request.getSenderAccount() != payer) {
+            return false;
+        }
+        long submittedAt = System.nanoTime();
+        try {
+            workers.execute(() -> settle(request, submittedAt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    //EFFECTS: returns number of requests waiting for a worker
+    public int getBacklog() {
+        return workers.getQueue().size();
+    }
+
+    public long getSettledCount() {
+        return settledCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    //EFFECTS: returns average nanoseconds from submit to settled, 0 if nothing was settled yet
+    public long getAverageSettleLatencyNanos() {
+        long count = settledCount.sum() + failedCount.sum();
+        return count == 0 ? 0 : totalLatency.sum() / count;
+    }
+
+    public long getMaxSettleLatencyNanos() {
+        return maxLatency.get();
+    }
+
+    //MODIFY: this
+    //EFFECTS: stops accepting requests; requests already queued are still settled
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    //EFFECTS: waits up to given time for queued requests to settle after shutdown, returns true if they all did
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return workers.awaitTermination(timeout, unit);
+    }
+
+    //MODIFY: request
+    //EFFECTS: completes request and records its outcome and latency
+    private void settle(Transaction request, long submittedAt) {
+        request.completeTransaction();
+        long latency = System.nanoTime() - submittedAt;
+        totalLatency.add(latency);
+        maxLatency.accumulate(latency);
+        if (request.getStatus() == Transaction.Status.COMPLETE) {
+            settledCount.increment();
+        } else {
+            failedCount.increment();
+        }
+    }
+
+    // Creates daemon worker threads, so pending settlements never keep the app from exiting
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "settlement-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -4,14 +4,13 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.time.LocalDate;
-import java.util.UUID;
 
 // class representing a transaction every time a purchase or request for money is made
 public class Transaction implements Writable {
     private Account recipient;
     private Account sender;
     private String id;
-    private double amount;
+    private long amount;          // in cents
     private LocalDate date;
 
     //Pending: money has yet to be changed hands, complete: money has changed hands, failed, money hasn't changed hands
@@ -20,18 +19,18 @@ public class Transaction implements Writable {
     }
 
     public enum Type {
-        REQUEST, EXCHANGE
+        REQUEST, EXCHANGE, CASHBACK
     }
 
-    private Status status;
+    private volatile Status status;
     private Type type;
 
     //EFFECTS: constructor sets fields and checks if type is not request and it is pending, then complete transaction
     public Transaction(Account recipient, Account sender, double amount, Type type, Status status) {
         this.recipient = recipient;
-        this.amount = amount;
+        this.amount = Money.toCents(amount);
         this.sender = sender;
-        this.id = UUID.randomUUID().toString();
+        this.id = IdGenerator.newId();
         this.date = LocalDate.now();
         this.status = status;
         this.type = type;
@@ -42,6 +41,25 @@ public class Transaction implements Writable {
 
     }
 
+    //EFFECTS: creates a transaction with every field taken verbatim; no id is generated and nothing is settled
+    Transaction(String id, Account recipient, Account sender, long amount, LocalDate date, Status status, Type type) {
+        this.id = id;
+        this.recipient = recipient;
+        this.sender = sender;
+        this.amount = amount;
+        this.date = date;
+        this.status = status;
+        this.type = type;
+    }
+
+    //EFFECTS: returns a transaction restored from storage with every field taken verbatim. Unlike the public
+    //         constructor, no id is generated, the date is not stamped, nothing is validated and a pending exchange
+    //         is not settled again, so no balance changes
+    public static Transaction restore(String id, Account recipient, Account sender, long amountCents, LocalDate date,
+                                      Status status, Type type) {
+        return new Transaction(id, recipient, sender, amountCents, date, status, type);
+    }
+
     // getters
     public Status getStatus() {
         return status;
@@ -72,6 +90,10 @@ public class Transaction implements Writable {
     }
 
     public double getAmount() {
+        return Money.toDollars(amount);
+    }
+
+    public long getAmountCents() {
         return amount;
     }
 
@@ -89,30 +111,75 @@ public class Transaction implements Writable {
     }
 
     //MODIFY: this
-    // EFFECTS: Process transaction, status changes to complete if sender has sufficient funds, status FAILED otherwise
-    public void completeTransaction() {
-        if (sender.getBalance() >= amount) {
-            try {
-                sender.decrementBalance(amount);
-            } catch (Exception e) {
-                System.out.println(e.getMessage());
-            }
-            recipient.incrementBalance(amount);
-            this.status = Status.COMPLETE;
+    // EFFECTS: Process transaction, status changes to complete if sender has sufficient funds, status FAILED otherwise.
+    //          The debit and credit happen as one atomic transfer between the two accounts. A transaction that is
+    //          no longer PENDING is left as is, so it is never settled twice
+    public synchronized void completeTransaction() {
+        if (status != Status.PENDING) {
+            return;
+        }
+        if (sender.transferTo(recipient, amount)) {
+            setStatus(Status.COMPLETE);
         } else {
-            this.status = Status.FAILED;
+            setStatus(Status.FAILED);
         }
     }
 
+    //MODIFY: this, sender, recipient
+    //EFFECTS: changes status and lets both accounts move this transaction to the matching status bucket
+    private void setStatus(Status newStatus) {
+        Status previousStatus = status;
+        status = newStatus;
+        if (previousStatus != newStatus) {
+            sender.transactionStatusChanged(this, previousStatus);
+            if (recipient != sender) {
+                recipient.transactionStatusChanged(this, previousStatus);
+            }
+        }
+    }
+
+    // two transactions are equal when they have the same id, so a copy materialized from a columnar history
+    // matches the original
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Transaction)) {
+            return false;
+        }
+        Transaction that = (Transaction) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
     @Override
     //EFFECTS: returns transactions in this account as a JSON object
     public JSONObject toJson() {
         JSONObject transactionJson = new JSONObject();
         transactionJson.put("recipient", accountToJson(recipient));
         transactionJson.put("sender", accountToJson(sender));
+        return putFields(transactionJson);
+    }
+
+    //EFFECTS: returns this transaction as a JSON object that refers to its recipient and sender by account id
+    public JSONObject toJsonWithAccountIds() {
+        JSONObject transactionJson = new JSONObject();
+        transactionJson.put("recipient", recipient.getId());
+        transactionJson.put("sender", sender.getId());
+        return putFields(transactionJson);
+    }
+
+    //MODIFY: transactionJson
+    //EFFECTS: puts the fields of this transaction other than its accounts into transactionJson and returns it
+    private JSONObject putFields(JSONObject transactionJson) {
         transactionJson.put("id", id);
         transactionJson.put("date", date);
-        transactionJson.put("amount", amount);
+        transactionJson.put("amount", getAmount());
         transactionJson.put("status", status);
         transactionJson.put("type", type);
         return transactionJson;
@@ -120,11 +187,6 @@ public class Transaction implements Writable {
 
     //EFFECTS: returns account as JSON object
     public JSONObject accountToJson(Account acc) {
-        JSONObject accountJson = new JSONObject();
-        accountJson.put("user", acc.getUser().toJson());
-        accountJson.put("balance", acc.getBalance());
-        accountJson.put("id", acc.getId());
-
-        return accountJson;
+        return acc.toSummaryJson();
     }
 }
@@ -0,0 +1,33 @@
+package model;
+
+import java.util.List;
+
+// Storage for the transactions of one account, with every transaction also indexed by its current status.
+// Implementations are not thread safe; Account guards every call with its own lock.
+public interface TransactionHistory {
+
+    //MODIFY: this
+    //EFFECTS: appends transaction to this history and to the bucket of its status
+    void add(Transaction transaction);
+
+    //MODIFY: this
+    //EFFECTS: removes transaction from this history, returns true if it was held, false otherwise
+    boolean remove(Transaction transaction);
+
+    //MODIFY: this
+    //EFFECTS: moves transaction from the bucket of previousStatus to the bucket of its current status, if held
+    void statusChanged(Transaction transaction, Transaction.Status previousStatus);
+
+    //EFFECTS: returns a read-only view of the transactions with given status that stays up to date
+    List<Transaction> withStatus(Transaction.Status status);
+
+    //EFFECTS: returns number of transactions with given status
+    int count(Transaction.Status status);
+
+    //EFFECTS: returns a read-only view of every transaction, in the order they were added
+    List<Transaction> all();
+
+    //EFFECTS: returns a read-only list of every transaction as it is now, in the order they were added. Later
+    //         changes to this history, or to the status of its transactions, do not show in it
+    List<Transaction> snapshot();
+}
@@ -0,0 +1,124 @@
+package model;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs account operations off the caller's thread (e.g. the Swing event thread) and hands back a CompletableFuture.
+// Each operation gets its own virtual thread when the running JVM has them (Java 21+), so operations blocked on
+// persistence do not each hold a platform thread. On older JVMs operations share a fixed pool of daemon threads
+// and queue for a free one instead.
+public class TransactionService {
+    private static final String VIRTUAL_EXECUTOR_FACTORY = "newVirtualThreadPerTaskExecutor";
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    //EFFECTS: creates a service on virtual threads if available, on a pool of one thread per processor otherwise
+    public TransactionService() {
+        ExecutorService virtualExecutor = newVirtualExecutor();
+        virtual = virtualExecutor != null;
+        executor = virtual ? virtualExecutor : newPlatformExecutor(Runtime.getRuntime().availableProcessors());
+    }
+
+    //EFFECTS: creates a service that runs operations on given executor
+    public TransactionService(ExecutorService executor) {
+        this.executor = executor;
+        this.virtual = false;
+    }
+
+    //EFFECTS: returns true if each operation runs on its own virtual thread
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    //MODIFY: sender, recipient
+    //EFFECTS: sends amount from sender to recipient, future holds the resulting transaction
+    public CompletableFuture<Transaction> sendMoney(Account sender, Account recipient, double amount) {
+        return call(() -> sender.sendMoney(recipient, amount));
+    }
+
+    //MODIFY: sender, recipient
+    //EFFECTS: sends amount from sender to recipient once per idempotency key, future holds the resulting transaction,
+    //         or the original one if the key was used before
+    public CompletableFuture<Transaction> sendMoney(Account sender, Account recipient, double amount,
+                                                    String idempotencyKey) {
+        return call(() -> sender.sendMoney(recipient, amount, idempotencyKey));
+    }
+
+    //MODIFY: buyer, company
+    //EFFECTS: makes purchase of amount from company, future holds the resulting transaction
+    public CompletableFuture<Transaction> makePurchase(Account buyer, Account company, double amount) {
+        return call(() -> buyer.makePurchase(company, amount));
+    }
+
+    //MODIFY: buyer, company
+    //EFFECTS: makes purchase of amount from company once per idempotency key, future holds the resulting
+    //         transaction, or the original one if the key was used before
+    public CompletableFuture<Transaction> makePurchase(Account buyer, Account company, double amount,
+                                                       String idempotencyKey) {
+        return call(() -> buyer.makePurchase(company, amount, idempotencyKey));
+    }
+
+    //MODIFY: requester, payer
+    //EFFECTS: requests amount from payer, future holds the pending request
+    public CompletableFuture<Transaction> requestMoney(Account requester, Account payer, double amount) {
+        return call(() -> requester.requestMoney(payer, amount));
+    }
+
+    //MODIFY: account
+    //EFFECTS: deposits amount from card, future holds the new balance or fails with InvalidCardException
+    public CompletableFuture<Double> deposit(Account account, CreditCard card, double amount) {
+        return call(() -> account.deposit(card, amount));
+    }
+
+    //MODIFY: account
+    //EFFECTS: withdraws amount to card, future holds true or fails with InvalidCardException or
+    //         InsufficientFundsException
+    public CompletableFuture<Boolean> withdraw(Account account, CreditCard card, double amount) {
+        return call(() -> account.withdraw(card, amount));
+    }
+
+    //MODIFY: this
+    //EFFECTS: stops accepting operations; operations already started still finish
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    //EFFECTS: runs operation on the executor; future completes with its result, or exceptionally with whatever it
+    //         threw, errors included, so callers waiting on it never hang, or with RejectedExecutionException if the
+    //         service is shut down
+    private <T> CompletableFuture<T> call(Callable<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(operation.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    //EFFECTS: returns a virtual-thread-per-task executor, null if this JVM has no virtual threads
+    private static ExecutorService newVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(VIRTUAL_EXECUTOR_FACTORY).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    //EFFECTS: returns a fixed pool of given number of daemon threads with an unbounded queue
+    private static ExecutorService newPlatformExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "transaction-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package model;
+
+// One leg of a batch transfer: an amount of money to send to a recipient
+public class Transfer {
+    private final Account recipient;
+    private final long amount;      // in cents
+
+    //REQUIRES: amount >= 0 and valid user of cash app as recipient
+    //EFFECTS: creates a transfer of amount to recipient
+    public Transfer(Account recipient, double amount) {
+        this.recipient = recipient;
+        this.amount = Money.toCents(amount);
+    }
+
+    //Getters
+    public Account getRecipient() {
+        return recipient;
+    }
+
+    public long getAmountCents() {
+        return amount;
+    }
+}
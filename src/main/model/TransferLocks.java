@@ -0,0 +1,55 @@
+package model;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// A striped lock table keyed by account id, used to move money between two accounts atomically.
+// Both stripes of a transfer are always taken lowest index first, so a transfer A -> B and a transfer B -> A
+// can never deadlock, and transfers between disjoint accounts usually land on different stripes.
+final class TransferLocks {
+    private static final int STRIPES = 1024;                // must be a power of two
+    private static final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private TransferLocks() {
+    }
+
+    //EFFECTS: returns the stripe guarding the account with given id
+    static int stripeOf(String accountId) {
+        int h = accountId.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    //MODIFY: this
+    //EFFECTS: blocks until the stripes of both accounts are held, taking them in ascending order, and returns a
+    //         handle that must be passed to unlock
+    static long lock(Account first, Account second) {
+        int a = stripeOf(first.getId());
+        int b = stripeOf(second.getId());
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+
+        locks[low].lock();
+        if (high != low) {
+            locks[high].lock();
+        }
+        return ((long) low << 32) | high;
+    }
+
+    //REQUIRES: handle was returned by lock on this thread and has not been unlocked yet
+    //MODIFY: this
+    //EFFECTS: releases the stripes held by given handle
+    static void unlock(long handle) {
+        int low = (int) (handle >>> 32);
+        int high = (int) handle;
+
+        if (high != low) {
+            locks[high].unlock();
+        }
+        locks[low].unlock();
+    }
+}
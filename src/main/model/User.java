@@ -4,7 +4,6 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.util.List;
-import java.util.UUID;
 
 // abstract class for user with business and person user extending it.
 public abstract class User implements Writable {
@@ -28,7 +27,7 @@ public abstract class User implements Writable {
     public User(String user, String location, UserType userType) {
         this.username = user;
         this.location = location;
-        this.id = UUID.randomUUID().toString();
+        this.id = IdGenerator.newId();
         this.account = new Account(this, 0);
         this.userType = userType;
     }
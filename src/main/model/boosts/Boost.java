@@ -1,15 +1,27 @@
 package model.boosts;
 
+import model.BusinessUser;
 import model.Transaction;
 import persistence.Writable;
 
+import java.util.Set;
+
 //represents what a boost consists of, and methods to apply a boost
 public interface Boost extends Writable {
-    double cashBack = 0.01;
+    int cashBackPercent = 1;
 
     boolean applyBoost(Transaction transaction);
 
 //Getters
 
     BoostType getBoostType();
+
+    //EFFECTS: returns cashback percent this boost gives on a qualifying purchase
+    int getCashBackPercent();
+
+    //EFFECTS: returns business types whose purchases qualify, an empty set if purchases from any recipient qualify
+    Set<BusinessUser.BusinessType> getBusinessTypes();
+
+    //EFFECTS: returns smallest purchase amount in cents that qualifies
+    long getMinimumAmountCents();
 }
@@ -0,0 +1,155 @@
+package model.boosts;
+
+import model.BusinessUser;
+import model.Money;
+import model.Transaction;
+import model.User;
+
+import java.util.*;
+
+// A catalog of any number of boost rules, indexed by recipient location and business type. A purchase is only
+// checked against rules filed under its recipient's location or no location, and under its recipient's business
+// type or any type. Each indexed list is sorted by minimum amount, so a scan stops at the first rule the purchase
+// is too small for. Reads use an immutable snapshot of the index, which is rebuilt whenever a rule is added or
+// removed, so purchases on many threads can be evaluated while the catalog changes.
+public class BoostCatalog {
+    private static final BusinessUser.BusinessType[] BUSINESS_TYPES = BusinessUser.BusinessType.values();
+    private static final int ANY_TYPE = BUSINESS_TYPES.length;       // slot for rules with no business type
+    private static final String ANY_LOCATION = "";                   // key for rules with no location
+    private static final Comparator<BoostRule> BY_MINIMUM_AMOUNT =
+            Comparator.comparingLong(BoostRule::getMinimumAmountCents);
+
+    private final List<BoostRule> rules;
+    private volatile Map<String, List<List<BoostRule>>> index;       // location -> business type slot -> rules
+
+    //EFFECTS: creates an empty catalog
+    public BoostCatalog() {
+        rules = new ArrayList<>();
+        index = Collections.emptyMap();
+    }
+
+    //MODIFY: this
+    //EFFECTS: adds rule to this catalog
+    public synchronized void add(BoostRule rule) {
+        rules.add(rule);
+        rebuildIndex();
+    }
+
+    //MODIFY: this
+    //EFFECTS: removes rule from this catalog, returns true if it was there, false otherwise
+    public synchronized boolean remove(BoostRule rule) {
+        if (!rules.remove(rule)) {
+            return false;
+        }
+        rebuildIndex();
+        return true;
+    }
+
+    public synchronized int size() {
+        return rules.size();
+    }
+
+    //EFFECTS: returns the rules that purchase matches
+    public List<BoostRule> matchingRules(Transaction purchase) {
+        List<BoostRule> matching = new ArrayList<>();
+        long amount = purchase.getAmountCents();
+        for (List<BoostRule> candidates : candidateLists(purchase.getRecipient())) {
+            for (BoostRule rule : candidates) {
+                if (rule.getMinimumAmountCents() > amount) {
+                    break;
+                }
+                if (rule.matches(purchase)) {
+                    matching.add(rule);
+                }
+            }
+        }
+        return matching;
+    }
+
+    //EFFECTS: returns total cashback percent of the rules that purchase matches, at most BoostExpression.MAX_PERCENT
+    public int percentFor(Transaction purchase) {
+        int percent = 0;
+        for (BoostRule rule : matchingRules(purchase)) {
+            percent += rule.getCashBackPercent();
+        }
+        return Math.min(percent, BoostExpression.MAX_PERCENT);
+    }
+
+    //EFFECTS: returns cashback in cents earned by purchase from the rules it matches
+    public long cashBackFor(Transaction purchase) {
+        return Money.percentOf(purchase.getAmountCents(), percentFor(purchase));
+    }
+
+    //EFFECTS: returns number of rules a purchase of amountCents from recipient is checked against
+    public int candidateCount(User recipient, long amountCents) {
+        int count = 0;
+        for (List<BoostRule> candidates : candidateLists(recipient)) {
+            for (BoostRule rule : candidates) {
+                if (rule.getMinimumAmountCents() > amountCents) {
+                    break;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //EFFECTS: returns the indexed lists holding every rule a purchase from recipient could match
+    private List<List<BoostRule>> candidateLists(User recipient) {
+        Map<String, List<List<BoostRule>>> snapshot = index;
+        List<List<BoostRule>> lists = new ArrayList<>(4);
+        String location = locationKey(recipient.getLocation());
+        addCandidateLists(lists, snapshot.get(location), recipient);
+        if (!location.equals(ANY_LOCATION)) {
+            addCandidateLists(lists, snapshot.get(ANY_LOCATION), recipient);
+        }
+        return lists;
+    }
+
+    //MODIFY: lists
+    //EFFECTS: adds the slots of one location that a purchase from recipient could match
+    private void addCandidateLists(List<List<BoostRule>> lists, List<List<BoostRule>> slots, User recipient) {
+        if (slots == null) {
+            return;
+        }
+        lists.add(slots.get(ANY_TYPE));
+        if (recipient instanceof BusinessUser && ((BusinessUser) recipient).getBusinessType() != null) {
+            lists.add(slots.get(((BusinessUser) recipient).getBusinessType().ordinal()));
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: replaces the index with one built from the current rules
+    private void rebuildIndex() {
+        Map<String, List<List<BoostRule>>> built = new HashMap<>();
+        for (BoostRule rule : rules) {
+            List<List<BoostRule>> slots = built.computeIfAbsent(locationKey(rule.getLocation()), k -> newSlots());
+            if (rule.getBusinessTypes().isEmpty()) {
+                slots.get(ANY_TYPE).add(rule);
+            }
+            for (BusinessUser.BusinessType type : rule.getBusinessTypes()) {
+                slots.get(type.ordinal()).add(rule);
+            }
+        }
+        for (List<List<BoostRule>> slots : built.values()) {
+            for (List<BoostRule> slot : slots) {
+                slot.sort(BY_MINIMUM_AMOUNT);
+            }
+        }
+        index = built;
+    }
+
+    //EFFECTS: returns one empty list per business type, plus one for rules with any type
+    private static List<List<BoostRule>> newSlots() {
+        List<List<BoostRule>> slots = new ArrayList<>(ANY_TYPE + 1);
+        for (int i = 0; i <= ANY_TYPE; i++) {
+            slots.add(new ArrayList<>());
+        }
+        return slots;
+    }
+
+    //EFFECTS: returns index key of given location
+    private static String locationKey(String location) {
+        return location == null ? ANY_LOCATION : BoostRule.normalizeLocation(location);
+    }
+}
@@ -0,0 +1,67 @@
+package model.boosts;
+
+import model.Account;
+import model.BusinessUser;
+import model.User;
+
+import java.util.Collection;
+import java.util.Set;
+
+// Holds, per business type, a bitmask of the boost types a purchase from a merchant of that type can qualify for.
+// Whether a merchant qualifies only depends on its business type, so the masks are worked out once, when the class
+// is loaded, and a purchase then checks an account's boosts against its merchant's mask with one array read and
+// one bitwise AND, without any lock or per-merchant entry. A change of business type is picked up by the next
+// purchase. HIGHROLLER and CUSTOM bits are set for every merchant, since those boosts depend on the purchase amount
+// or on conditions that are checked later.
+public final class BoostEligibilityCache {
+    private static final Boost[] BUILT_IN_BOOSTS = {new HighRollerBoost(), new ShopaholicBoost(), new FoodieBoost()};
+    private static final int NOT_A_BUSINESS = BusinessUser.BusinessType.values().length;
+    private static final int[] ELIGIBILITY = computeEligibility();   // business type ordinal -> boost type bitmask,
+                                                                     // NOT_A_BUSINESS for other merchants
+
+    private BoostEligibilityCache() {
+    }
+
+    //EFFECTS: returns the bit of given boost type
+    public static int bitOf(BoostType type) {
+        return 1 << type.ordinal();
+    }
+
+    //EFFECTS: returns bitmask with the bit of every given boost's type set
+    public static int maskOf(Collection<Boost> boosts) {
+        int mask = 0;
+        for (Boost boost : boosts) {
+            mask |= bitOf(boost.getBoostType());
+        }
+        return mask;
+    }
+
+    //EFFECTS: returns bitmask of the boost types a purchase from merchant can qualify for
+    public static int eligibilityOf(Account merchant) {
+        User user = merchant.getUser();
+        BusinessUser.BusinessType type = user instanceof BusinessUser ? ((BusinessUser) user).getBusinessType() : null;
+        return ELIGIBILITY[type == null ? NOT_A_BUSINESS : type.ordinal()];
+    }
+
+    //EFFECTS: works out the mask of every business type, and of merchants that are not businesses
+    private static int[] computeEligibility() {
+        int[] eligibility = new int[NOT_A_BUSINESS + 1];
+        for (BusinessUser.BusinessType type : BusinessUser.BusinessType.values()) {
+            eligibility[type.ordinal()] = maskFor(type);
+        }
+        eligibility[NOT_A_BUSINESS] = maskFor(null);
+        return eligibility;
+    }
+
+    //EFFECTS: returns mask of a merchant of given business type, null if it is not a business
+    private static int maskFor(BusinessUser.BusinessType type) {
+        int eligibility = bitOf(BoostType.CUSTOM);
+        for (Boost boost : BUILT_IN_BOOSTS) {
+            Set<BusinessUser.BusinessType> types = boost.getBusinessTypes();
+            if (types.isEmpty() || (type != null && types.contains(type))) {
+                eligibility |= bitOf(boost.getBoostType());
+            }
+        }
+        return eligibility;
+    }
+}
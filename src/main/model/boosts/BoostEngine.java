@@ -0,0 +1,77 @@
+package model.boosts;
+
+import model.BusinessUser;
+import model.Money;
+import model.Transaction;
+import model.User;
+
+import java.util.*;
+
+// An account's boosts compiled into lookup tables, so working out the cashback on a purchase costs one array
+// lookup instead of asking every boost in turn. Recipients fall into one bucket per business type plus one bucket
+// for personal users, and each bucket holds the total cashback percent earned at each amount threshold.
+public class BoostEngine {
+    private static final BusinessUser.BusinessType[] BUSINESS_TYPES = BusinessUser.BusinessType.values();
+    private static final int PERSONAL = BUSINESS_TYPES.length;   // bucket for recipients that are not businesses
+    public static final BoostEngine EMPTY = new BoostEngine(Collections.emptySet());
+
+    private final long[] thresholds;   // distinct minimum amounts in cents, ascending, thresholds[0] == 0
+    private final int[][] percents;    // [bucket][i] -> total percent for purchases of at least thresholds[i]
+
+    //EFFECTS: compiles given boosts into lookup tables
+    public BoostEngine(Collection<Boost> boosts) {
+        thresholds = thresholdsOf(boosts);
+        percents = new int[PERSONAL + 1][thresholds.length];
+        for (Boost boost : boosts) {
+            compile(boost);
+        }
+    }
+
+    //EFFECTS: returns total cashback percent earned by a purchase of amountCents from recipient; recipients that are
+    //         not businesses, or have no business type, only earn boosts that apply to any recipient
+    public int percentFor(User recipient, long amountCents) {
+        int bucket = PERSONAL;
+        if (recipient instanceof BusinessUser && ((BusinessUser) recipient).getBusinessType() != null) {
+            bucket = ((BusinessUser) recipient).getBusinessType().ordinal();
+        }
+        int threshold = thresholds.length - 1;
+        while (threshold > 0 && thresholds[threshold] > amountCents) {
+            threshold--;
+        }
+        return percents[bucket][threshold];
+    }
+
+    //EFFECTS: returns cashback in cents earned by given purchase
+    public long cashBackFor(Transaction purchase) {
+        long amount = purchase.getAmountCents();
+        return Money.percentOf(amount, percentFor(purchase.getRecipient(), amount));
+    }
+
+    //MODIFY: this
+    //EFFECTS: adds percent of boost to every bucket and threshold it qualifies for
+    private void compile(Boost boost) {
+        int from = Arrays.binarySearch(thresholds, boost.getMinimumAmountCents());
+        Set<BusinessUser.BusinessType> types = boost.getBusinessTypes();
+        for (int bucket = 0; bucket <= PERSONAL; bucket++) {
+            boolean qualifies = types.isEmpty() || (bucket != PERSONAL && types.contains(BUSINESS_TYPES[bucket]));
+            for (int i = from; qualifies && i < thresholds.length; i++) {
+                percents[bucket][i] += boost.getCashBackPercent();
+            }
+        }
+    }
+
+    //EFFECTS: returns 0 and the minimum amounts of given boosts, ascending and without duplicates
+    private static long[] thresholdsOf(Collection<Boost> boosts) {
+        SortedSet<Long> minimums = new TreeSet<>();
+        minimums.add(0L);
+        for (Boost boost : boosts) {
+            minimums.add(boost.getMinimumAmountCents());
+        }
+        long[] thresholds = new long[minimums.size()];
+        int i = 0;
+        for (long minimum : minimums) {
+            thresholds[i++] = minimum;
+        }
+        return thresholds;
+    }
+}
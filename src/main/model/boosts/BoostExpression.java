@@ -0,0 +1,188 @@
+package model.boosts;
+
+import model.BusinessUser;
+import model.Money;
+import model.Transaction;
+import model.User;
+import model.exceptions.InvalidBoostExpressionException;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Compiles boost conditions written in a tiny expression language into a CompiledBoost, for example
+//     businessType in (CAFE, RESTAURANT) && amount >= 20 -> 3%
+// Grammar:
+//     rule      := condition ("&&" condition)* "->" integer "%"
+//     condition := "businessType" "in" "(" TYPE ("," TYPE)* ")" | "businessType" "==" TYPE
+//                | "amount" (">=" | ">") number
+// Every condition becomes a lambda over values captured at compile time and the lambdas are chained with
+// Predicate.and, so nothing is parsed or looked up when a purchase is checked. The language only has conditions
+// that BoostEngine can also index, so a compiled boost works both on its own and through an account's engine.
+public final class BoostExpression {
+    public static final int MAX_PERCENT = 100;
+    private static final Pattern TOKEN = Pattern.compile("\\s*(&&|->|>=|==|[(),%>]|[A-Za-z_]+|\\d+(\\.\\d+)?)");
+
+    private final String source;
+    private final List<String> tokens;
+    private int next;                                       // index of the next token to read
+    private Set<BusinessUser.BusinessType> businessTypes;   // empty until a businessType condition is read
+    private boolean typesRestricted;
+    private long minimumAmount;                             // in cents
+    private Predicate<Transaction> condition;
+
+    private BoostExpression(String source) throws InvalidBoostExpressionException {
+        this.source = source.trim();
+        this.tokens = tokenize(this.source);
+        this.businessTypes = EnumSet.allOf(BusinessUser.BusinessType.class);
+        this.condition = t -> true;
+    }
+
+    //EFFECTS: returns the boost described by source, throws InvalidBoostExpressionException if source does not
+    //         follow the grammar above
+    public static CompiledBoost compile(String source) throws InvalidBoostExpressionException {
+        return new BoostExpression(source).parseRule();
+    }
+
+    //MODIFY: this
+    //EFFECTS: parses the whole rule and returns the compiled boost
+    private CompiledBoost parseRule() throws InvalidBoostExpressionException {
+        parseCondition();
+        while (accept("&&")) {
+            parseCondition();
+        }
+        expect("->");
+        int percent = percent(take());
+        expect("%");
+        if (next < tokens.size()) {
+            throw error("unexpected " + tokens.get(next) + " after the percent");
+        }
+        if (typesRestricted && businessTypes.isEmpty()) {
+            throw error("no business type is in every businessType condition");
+        }
+        Set<BusinessUser.BusinessType> types = typesRestricted
+                ? Collections.unmodifiableSet(businessTypes) : Collections.emptySet();
+        return new CompiledBoost(source, condition, percent, types, minimumAmount);
+    }
+
+    //MODIFY: this
+    //EFFECTS: parses one condition and chains it onto the compiled condition
+    private void parseCondition() throws InvalidBoostExpressionException {
+        String field = take();
+        if (field.equals("businessType")) {
+            parseBusinessTypes();
+        } else if (field.equals("amount")) {
+            parseAmount();
+        } else {
+            throw error("unknown field " + field);
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: parses the business types of a businessType condition and keeps only those in every such condition
+    private void parseBusinessTypes() throws InvalidBoostExpressionException {
+        Set<BusinessUser.BusinessType> types = EnumSet.noneOf(BusinessUser.BusinessType.class);
+        if (accept("==")) {
+            types.add(businessType(take()));
+        } else {
+            expect("in");
+            expect("(");
+            types.add(businessType(take()));
+            while (accept(",")) {
+                types.add(businessType(take()));
+            }
+            expect(")");
+        }
+        businessTypes.retainAll(types);
+        typesRestricted = true;
+        condition = condition.and(t -> isOneOf(t.getRecipient(), types));
+    }
+
+    //MODIFY: this
+    //EFFECTS: parses the bound of an amount condition and keeps the highest minimum amount
+    private void parseAmount() throws InvalidBoostExpressionException {
+        boolean inclusive = accept(">=");
+        if (!inclusive) {
+            expect(">");
+        }
+        String amount = take();
+        if (!amount.matches("\\d+(\\.\\d+)?")) {
+            throw error("expected an amount but found " + amount);
+        }
+        long minimum = Money.toCents(Double.parseDouble(amount)) + (inclusive ? 0 : 1);
+        minimumAmount = Math.max(minimumAmount, minimum);
+        condition = condition.and(t -> t.getAmountCents() >= minimum);
+    }
+
+    //EFFECTS: returns given token as a percent, throws InvalidBoostExpressionException if it is not a whole number
+    //         from 1 to MAX_PERCENT
+    private int percent(String token) throws InvalidBoostExpressionException {
+        if (!token.matches("\\d{1,3}") || Integer.parseInt(token) < 1 || Integer.parseInt(token) > MAX_PERCENT) {
+            throw error("expected a whole percent from 1 to " + MAX_PERCENT + " but found " + token);
+        }
+        return Integer.parseInt(token);
+    }
+
+    //EFFECTS: returns true if recipient is a business of one of given types
+    private static boolean isOneOf(User recipient, Set<BusinessUser.BusinessType> types) {
+        return recipient instanceof BusinessUser && types.contains(((BusinessUser) recipient).getBusinessType());
+    }
+
+    //EFFECTS: returns business type with given name, throws InvalidBoostExpressionException if there is none
+    private BusinessUser.BusinessType businessType(String name) throws InvalidBoostExpressionException {
+        try {
+            return BusinessUser.BusinessType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw error("unknown business type " + name);
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: reads the next token if it is given token and returns true, otherwise returns false
+    private boolean accept(String token) {
+        if (next < tokens.size() && tokens.get(next).equals(token)) {
+            next++;
+            return true;
+        }
+        return false;
+    }
+
+    //MODIFY: this
+    //EFFECTS: reads the next token, throws InvalidBoostExpressionException if it is not given token
+    private void expect(String token) throws InvalidBoostExpressionException {
+        if (!accept(token)) {
+            throw error("expected " + token);
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: reads and returns the next token, throws InvalidBoostExpressionException if there is none
+    private String take() throws InvalidBoostExpressionException {
+        if (next >= tokens.size()) {
+            throw error("unexpected end of expression");
+        }
+        return tokens.get(next++);
+    }
+
+    //EFFECTS: returns an exception describing a problem at the current token
+    private InvalidBoostExpressionException error(String problem) {
+        return new InvalidBoostExpressionException(problem + " at token " + (next + 1) + " of \"" + source + "\"");
+    }
+
+    //EFFECTS: splits source into tokens, throws InvalidBoostExpressionException on a character that starts none
+    private static List<String> tokenize(String source) throws InvalidBoostExpressionException {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(source);
+        int position = 0;
+        while (position < source.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                throw new InvalidBoostExpressionException("unexpected character at position " + position
+                        + " of \"" + source + "\"");
+            }
+            tokens.add(matcher.group(1));
+            position = matcher.end();
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,138 @@
+package model.boosts;
+
+import model.BusinessUser;
+import model.Money;
+import model.Transaction;
+import model.User;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// A data-driven boost rule from a BoostCatalog: gives a cashback percent on purchases that match every one of its
+// predicates. A predicate left unset matches any purchase.
+public class BoostRule implements Writable {
+    private final String name;
+    private final int cashBackPercent;
+    private Set<BusinessUser.BusinessType> businessTypes;   // empty matches any recipient
+    private long minimumAmount;                             // in cents
+    private String location;                                // null matches any location
+    private String locationKey;                             // location as normalizeLocation gives it
+    private LocalDate startDate;                            // null means no start
+    private LocalDate endDate;                              // null means no end
+
+    //EFFECTS: creates a rule with given name and percent that matches every purchase, throws
+    //         IllegalArgumentException if cashBackPercent is not from 1 to BoostExpression.MAX_PERCENT
+    public BoostRule(String name, int cashBackPercent) {
+        if (cashBackPercent < 1 || cashBackPercent > BoostExpression.MAX_PERCENT) {
+            throw new IllegalArgumentException("Cashback percent must be between 1 and "
+                    + BoostExpression.MAX_PERCENT + " but was " + cashBackPercent);
+        }
+        this.name = name;
+        this.cashBackPercent = cashBackPercent;
+        this.businessTypes = Collections.emptySet();
+    }
+
+    //MODIFY: this
+    //EFFECTS: restricts rule to purchases from businesses of given types, returns this
+    public BoostRule forBusinessTypes(BusinessUser.BusinessType first, BusinessUser.BusinessType... rest) {
+        businessTypes = Collections.unmodifiableSet(EnumSet.of(first, rest));
+        return this;
+    }
+
+    //REQUIRES: amount >= 0
+    //MODIFY: this
+    //EFFECTS: restricts rule to purchases of at least amount, returns this
+    public BoostRule withMinimumAmount(double amount) {
+        minimumAmount = Money.toCents(amount);
+        return this;
+    }
+
+    //MODIFY: this
+    //EFFECTS: restricts rule to purchases from recipients in given location (ignoring case and surrounding spaces),
+    //         returns this
+    public BoostRule inLocation(String location) {
+        this.location = location;
+        this.locationKey = normalizeLocation(location);
+        return this;
+    }
+
+    //MODIFY: this
+    //EFFECTS: restricts rule to purchases dated from start to end inclusive, null leaves that end open, returns this
+    public BoostRule between(LocalDate start, LocalDate end) {
+        this.startDate = start;
+        this.endDate = end;
+        return this;
+    }
+
+    //EFFECTS: returns true if purchase matches every predicate of this rule
+    public boolean matches(Transaction purchase) {
+        return purchase.getAmountCents() >= minimumAmount
+                && matchesRecipient(purchase.getRecipient())
+                && (startDate == null || !purchase.getDate().isBefore(startDate))
+                && (endDate == null || !purchase.getDate().isAfter(endDate));
+    }
+
+    //EFFECTS: returns true if recipient has the business type and location this rule asks for
+    private boolean matchesRecipient(User recipient) {
+        if (locationKey != null && !locationKey.equals(normalizeLocation(recipient.getLocation()))) {
+            return false;
+        }
+        return businessTypes.isEmpty() || (recipient instanceof BusinessUser
+                && businessTypes.contains(((BusinessUser) recipient).getBusinessType()));
+    }
+
+    //EFFECTS: returns location in the form rules compare and index it by, ignoring case and surrounding spaces;
+    //         null if location is null
+    static String normalizeLocation(String location) {
+        return location == null ? null : location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    //getters
+    public String getName() {
+        return name;
+    }
+
+    public int getCashBackPercent() {
+        return cashBackPercent;
+    }
+
+    public Set<BusinessUser.BusinessType> getBusinessTypes() {
+        return businessTypes;
+    }
+
+    public long getMinimumAmountCents() {
+        return minimumAmount;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    @Override
+    //EFFECTS: returns this rule as a JSON object
+    public JSONObject toJson() {
+        JSONObject ruleJson = new JSONObject();
+        ruleJson.put("name", name);
+        ruleJson.put("cashBackPercent", cashBackPercent);
+        ruleJson.put("businessTypes", new JSONArray(businessTypes));
+        ruleJson.put("minimumAmount", Money.toDollars(minimumAmount));
+        ruleJson.put("location", location == null ? JSONObject.NULL : location);
+        ruleJson.put("startDate", startDate == null ? JSONObject.NULL : startDate.toString());
+        ruleJson.put("endDate", endDate == null ? JSONObject.NULL : endDate.toString());
+        return ruleJson;
+    }
+}
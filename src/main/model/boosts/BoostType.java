@@ -2,5 +2,5 @@ package model.boosts;
 
 // Lists enum of different available boost types
 public enum BoostType {
-    HIGHROLLER, SHOPAHOLIC, FOODIE
+    HIGHROLLER, SHOPAHOLIC, FOODIE, CUSTOM
 }
@@ -0,0 +1,93 @@
+package model.boosts;
+
+import model.BusinessUser;
+import model.Money;
+import model.Transaction;
+import org.json.JSONObject;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+// A boost defined by a BoostExpression. Its condition is a chain of lambdas built once when the expression is
+// compiled, so applying it to a purchase costs about as much as a hand-written boost
+public class CompiledBoost implements Boost {
+    private final String expression;
+    private final Predicate<Transaction> condition;
+    private final int percent;
+    private final Set<BusinessUser.BusinessType> businessTypes;
+    private final long minimumAmount;
+
+    //EFFECTS: creates a boost from the parts of a compiled expression
+    CompiledBoost(String expression, Predicate<Transaction> condition, int percent,
+                  Set<BusinessUser.BusinessType> businessTypes, long minimumAmount) {
+        this.expression = expression;
+        this.condition = condition;
+        this.percent = percent;
+        this.businessTypes = businessTypes;
+        this.minimumAmount = minimumAmount;
+    }
+
+    // REQUIRE: valid transaction
+    // MODIFY: this
+    // EFFECTS: If transaction matches the condition of this boost, user gets its percent of the purchase as cashback
+    @Override
+    public boolean applyBoost(Transaction transaction) {
+        if (condition.test(transaction)) {
+            transaction.getSenderAccount().creditCashBack(Money.percentOf(transaction.getAmountCents(), percent));
+            return true;
+        }
+        return false;
+    }
+
+    //EFFECTS: returns the expression this boost was compiled from
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public BoostType getBoostType() {
+        return BoostType.CUSTOM;
+    }
+
+    @Override
+    public int getCashBackPercent() {
+        return percent;
+    }
+
+    @Override
+    public Set<BusinessUser.BusinessType> getBusinessTypes() {
+        return businessTypes;
+    }
+
+    @Override
+    public long getMinimumAmountCents() {
+        return minimumAmount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompiledBoost)) {
+            return false;
+        }
+        CompiledBoost that = (CompiledBoost) o;
+        return expression.equals(that.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    //EFFECTS: returns this boost as a JSON object
+    public JSONObject toJson() {
+        JSONObject boostJson = new JSONObject();
+        boostJson.put("boostType", getBoostType());
+        boostJson.put("expression", expression);
+
+        return boostJson;
+    }
+}
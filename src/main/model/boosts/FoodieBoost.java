@@ -1,14 +1,21 @@
 package model.boosts;
 
 import model.BusinessUser;
+import model.Money;
 import model.Transaction;
 import model.User;
 import org.json.JSONObject;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
 
 // A boost to give cashback for purchases to cafe or restaurants
 public class FoodieBoost implements Boost {
+    private static final Set<BusinessUser.BusinessType> businessTypes =
+            Collections.unmodifiableSet(EnumSet.of(BusinessUser.BusinessType.CAFE,
+                    BusinessUser.BusinessType.RESTAURANT));
     BoostType boostType;
 
     //EFFECTS: creates an boost if recipient is a type restaurant or cafe
@@ -28,7 +35,8 @@ public class FoodieBoost implements Boost {
         if (user instanceof BusinessUser) {
             if (((BusinessUser) user).getBusinessType() == BusinessUser.BusinessType.RESTAURANT
                     || ((BusinessUser) user).getBusinessType() == BusinessUser.BusinessType.CAFE) {
-                transaction.getSenderAccount().incrementBalance(3 * cashBack * transaction.getAmount());
+                transaction.getSenderAccount().creditCashBack(
+                        Money.percentOf(transaction.getAmountCents(), 3 * cashBackPercent));
                 return true;
             }
         }
@@ -57,6 +65,21 @@ public class FoodieBoost implements Boost {
         return boostType;
     }
 
+    @Override
+    public int getCashBackPercent() {
+        return 3 * cashBackPercent;
+    }
+
+    @Override
+    public Set<BusinessUser.BusinessType> getBusinessTypes() {
+        return businessTypes;
+    }
+
+    @Override
+    public long getMinimumAmountCents() {
+        return 0;
+    }
+
     @Override
     //EFFECTS: returns this boost as a JSON object
     public JSONObject toJson() {
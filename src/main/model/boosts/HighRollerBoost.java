@@ -1,12 +1,18 @@
 package model.boosts;
 
+import model.BusinessUser;
+import model.Money;
 import model.Transaction;
 import org.json.JSONObject;
 
+import java.util.Collections;
 import java.util.Objects;
+import java.util.Set;
+
 // A boost to give cashback for purchases > 1000
 
 public class HighRollerBoost implements Boost {
+    private static final long minimumAmount = Money.toCents(1000);
     private BoostType boostType;
     //EFFECTS: creates an boost if amount is > 1000
 
@@ -19,8 +25,9 @@ public class HighRollerBoost implements Boost {
     // MODIFY: this
     // EFFECTS: If transaction amount >= 1000, user gets 5 times cashback percentage (10%) for total purchase
     public boolean applyBoost(Transaction transaction) {
-        if (transaction.getAmount() >= 1000) {
-            transaction.getSenderAccount().incrementBalance(cashBack * 10 * transaction.getAmount());
+        if (transaction.getAmountCents() >= minimumAmount) {
+            transaction.getSenderAccount().creditCashBack(
+                    Money.percentOf(transaction.getAmountCents(), cashBackPercent * 10));
             return true;
         }
         return false;
@@ -49,6 +56,21 @@ public class HighRollerBoost implements Boost {
         return boostType;
     }
 
+    @Override
+    public int getCashBackPercent() {
+        return cashBackPercent * 10;
+    }
+
+    @Override
+    public Set<BusinessUser.BusinessType> getBusinessTypes() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public long getMinimumAmountCents() {
+        return minimumAmount;
+    }
+
     @Override
     //EFFECTS: returns this boost as a JSON object
     public JSONObject toJson() {
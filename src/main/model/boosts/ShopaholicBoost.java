@@ -1,12 +1,19 @@
 package model.boosts;
 
 import model.BusinessUser;
+import model.Money;
 import model.Transaction;
 import model.User;
 import org.json.JSONObject;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 // A boost to give cashback to purchases made to retailer
 public class ShopaholicBoost implements Boost {
+    private static final Set<BusinessUser.BusinessType> businessTypes =
+            Collections.unmodifiableSet(EnumSet.of(BusinessUser.BusinessType.RETAILER));
     BoostType boostType;
 
     //EFFECTS: creates an boost if recipient is a type retailer
@@ -25,7 +32,8 @@ public class ShopaholicBoost implements Boost {
 
         if (user instanceof BusinessUser) {
             if (((BusinessUser) user).getBusinessType() == BusinessUser.BusinessType.RETAILER) {
-                transaction.getSenderAccount().incrementBalance(cashBack * 5 * transaction.getAmount());
+                transaction.getSenderAccount().creditCashBack(
+                        Money.percentOf(transaction.getAmountCents(), cashBackPercent * 5));
                 return true;
             }
         }
@@ -37,6 +45,21 @@ public class ShopaholicBoost implements Boost {
         return boostType;
     }
 
+    @Override
+    public int getCashBackPercent() {
+        return cashBackPercent * 5;
+    }
+
+    @Override
+    public Set<BusinessUser.BusinessType> getBusinessTypes() {
+        return businessTypes;
+    }
+
+    @Override
+    public long getMinimumAmountCents() {
+        return 0;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,37 @@
+package model.events;
+
+import model.Money;
+import org.json.JSONObject;
+import persistence.Writable;
+
+// Something that happened to an account. Events carry the account's balance right after they happened, so
+// replaying them also picks up balance changes that have no event of their own (e.g. a deposit)
+public abstract class AccountEvent implements Writable {
+    private final long balanceAfter;    // in cents
+
+    //EFFECTS: creates an event that left the account with given balance in cents
+    protected AccountEvent(long balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
+    public long getBalanceAfterCents() {
+        return balanceAfter;
+    }
+
+    //EFFECTS: returns name this event is stored under
+    public abstract String getName();
+
+    @Override
+    //EFFECTS: returns this event as a JSON object
+    public JSONObject toJson() {
+        JSONObject eventJson = new JSONObject();
+        eventJson.put("event", getName());
+        eventJson.put("balanceAfter", Money.toDollars(balanceAfter));
+        addFields(eventJson);
+        return eventJson;
+    }
+
+    //MODIFY: eventJson
+    //EFFECTS: puts the fields of this kind of event into eventJson
+    protected abstract void addFields(JSONObject eventJson);
+}
@@ -0,0 +1,10 @@
+package model.events;
+
+import model.Account;
+
+// Receives the events of the accounts it listens to, e.g. to append them to an event log
+public interface AccountEventListener {
+
+    //EFFECTS: handles event that just happened to account
+    void onEvent(Account account, AccountEvent event);
+}
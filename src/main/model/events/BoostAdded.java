@@ -0,0 +1,30 @@
+package model.events;
+
+import model.boosts.Boost;
+import org.json.JSONObject;
+
+// A boost was added to an account
+public class BoostAdded extends AccountEvent {
+    public static final String NAME = "BoostAdded";
+    private final Boost boost;
+
+    //EFFECTS: creates an event for boost added to an account with given balance in cents
+    public BoostAdded(Boost boost, long balanceAfter) {
+        super(balanceAfter);
+        this.boost = boost;
+    }
+
+    public Boost getBoost() {
+        return boost;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected void addFields(JSONObject eventJson) {
+        eventJson.put("boost", boost.toJson());
+    }
+}
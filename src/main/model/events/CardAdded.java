@@ -0,0 +1,30 @@
+package model.events;
+
+import model.CreditCard;
+import org.json.JSONObject;
+
+// A credit card was added to an account
+public class CardAdded extends AccountEvent {
+    public static final String NAME = "CardAdded";
+    private final CreditCard card;
+
+    //EFFECTS: creates an event for card added to an account with given balance in cents
+    public CardAdded(CreditCard card, long balanceAfter) {
+        super(balanceAfter);
+        this.card = card;
+    }
+
+    public CreditCard getCard() {
+        return card;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected void addFields(JSONObject eventJson) {
+        eventJson.put("card", card.toJson());
+    }
+}
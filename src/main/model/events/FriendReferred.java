@@ -0,0 +1,29 @@
+package model.events;
+
+import org.json.JSONObject;
+
+// The owner of an account referred a friend, which may have earned a referral reward
+public class FriendReferred extends AccountEvent {
+    public static final String NAME = "FriendReferred";
+    private final String email;
+
+    //EFFECTS: creates an event for a referral of email that left the account with given balance in cents
+    public FriendReferred(String email, long balanceAfter) {
+        super(balanceAfter);
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    protected void addFields(JSONObject eventJson) {
+        eventJson.put("email", email);
+    }
+}
@@ -0,0 +1,90 @@
+package model.events;
+
+import model.Money;
+import model.Transaction;
+import org.json.JSONObject;
+
+import java.time.LocalDate;
+
+// An event for a transaction that moved money between two accounts. The same event is recorded for the sender and
+// for the recipient, each with its own balance after the transaction
+public abstract class MoneyMovedEvent extends AccountEvent {
+    private final String transactionId;
+    private final String senderId;          // account id
+    private final String senderUsername;
+    private final String recipientId;       // account id
+    private final String recipientUsername;
+    private final long amount;              // in cents
+    private final LocalDate date;
+    private final Transaction.Status status;
+
+    //EFFECTS: creates an event for given transaction that left the account with given balance in cents
+    protected MoneyMovedEvent(Transaction transaction, long balanceAfter) {
+        this(transaction.getId(), transaction.getSenderAccount().getId(), transaction.getSenderUsername(),
+                transaction.getRecipientAccount().getId(), transaction.getRecipientUsername(),
+                transaction.getAmountCents(), transaction.getDate(), transaction.getStatus(), balanceAfter);
+    }
+
+    //EFFECTS: creates an event from stored fields
+    protected MoneyMovedEvent(String transactionId, String senderId, String senderUsername, String recipientId,
+                              String recipientUsername, long amount, LocalDate date, Transaction.Status status,
+                              long balanceAfter) {
+        super(balanceAfter);
+        this.transactionId = transactionId;
+        this.senderId = senderId;
+        this.senderUsername = senderUsername;
+        this.recipientId = recipientId;
+        this.recipientUsername = recipientUsername;
+        this.amount = amount;
+        this.date = date;
+        this.status = status;
+    }
+
+    //getters
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public String getSenderUsername() {
+        return senderUsername;
+    }
+
+    public String getRecipientId() {
+        return recipientId;
+    }
+
+    public String getRecipientUsername() {
+        return recipientUsername;
+    }
+
+    public long getAmountCents() {
+        return amount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Transaction.Status getStatus() {
+        return status;
+    }
+
+    //EFFECTS: returns the type of the transaction this event is for
+    public abstract Transaction.Type getTransactionType();
+
+    @Override
+    protected void addFields(JSONObject eventJson) {
+        eventJson.put("transactionId", transactionId);
+        eventJson.put("senderId", senderId);
+        eventJson.put("senderUsername", senderUsername);
+        eventJson.put("recipientId", recipientId);
+        eventJson.put("recipientUsername", recipientUsername);
+        eventJson.put("amount", Money.toDollars(amount));
+        eventJson.put("date", date.toString());
+        eventJson.put("status", status);
+    }
+}
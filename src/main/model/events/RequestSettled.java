@@ -0,0 +1,33 @@
+package model.events;
+
+import model.Transaction;
+
+import java.time.LocalDate;
+
+// A money request was settled, it either completed or failed for lack of funds
+public class RequestSettled extends MoneyMovedEvent {
+    public static final String NAME = "RequestSettled";
+
+    //EFFECTS: creates an event for given transaction that left the account with given balance in cents
+    public RequestSettled(Transaction transaction, long balanceAfter) {
+        super(transaction, balanceAfter);
+    }
+
+    //EFFECTS: creates an event from stored fields
+    public RequestSettled(String transactionId, String senderId, String senderUsername, String recipientId,
+                          String recipientUsername, long amount, LocalDate date, Transaction.Status status,
+                          long balanceAfter) {
+        super(transactionId, senderId, senderUsername, recipientId, recipientUsername, amount, date, status,
+                balanceAfter);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Transaction.Type getTransactionType() {
+        return Transaction.Type.REQUEST;
+    }
+}
@@ -0,0 +1,9 @@
+package model.exceptions;
+
+public class InvalidBoostExpressionException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidBoostExpressionException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,189 @@
+package persistence;
+
+import model.*;
+import model.events.*;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Keeps an account durable as an append-only log of its events plus a periodic snapshot. Every event is appended to
+// the log as one line of JSON as it happens; every snapshotInterval events the whole account is streamed to a
+// snapshot file by JsonAccountWriter and the log starts over. Recovering streams the snapshot back with
+// JsonAccountReader and replays only the events logged after it, so recovery time is bounded by the snapshot
+// interval rather than by the account's history, and neither side holds the account as one JSON tree
+public class EventStore implements AccountEventListener {
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100;
+    private static final String EVENTS_FILE = "events.jsonl";
+    private static final String SNAPSHOT_FILE = "snapshot.json";
+    private static final String EVENT_SEQUENCE = "eventSequence";
+    private static final Map<String, MoneyMovedFactory> MONEY_MOVED_EVENTS = Map.of(
+            MoneySent.NAME, MoneySent::new,
+            PurchaseMade.NAME, PurchaseMade::new,
+            MoneyRequested.NAME, MoneyRequested::new,
+            RequestSettled.NAME, RequestSettled::new,
+            CashBackPosted.NAME, CashBackPosted::new);
+
+    private final Path events;
+    private final Path snapshot;
+    private final int snapshotInterval;
+    private long sequence;              // sequence number of the last event recorded
+    private int sinceSnapshot;          // events recorded since the last snapshot
+    private BufferedWriter log;         // null until an account is attached
+
+    //EFFECTS: creates a store keeping its files in given directory, snapshotting at the default interval
+    public EventStore(String directory) {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    //REQUIRES: snapshotInterval > 0
+    //EFFECTS: creates a store keeping its files in given directory, snapshotting every snapshotInterval events
+    public EventStore(String directory, int snapshotInterval) {
+        this.events = Paths.get(directory, EVENTS_FILE);
+        this.snapshot = Paths.get(directory, SNAPSHOT_FILE);
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    //MODIFY: this, account
+    //EFFECTS: snapshots account and records its events from now on; throws IOException if the snapshot cannot be
+    //         written
+    public synchronized void attach(Account account) throws IOException {
+        Files.createDirectories(events.getParent());
+        snapshot(account);
+        account.setEventListener(this);
+    }
+
+    //MODIFY: this
+    //EFFECTS: appends event to the log and snapshots account if snapshotInterval events were recorded since the
+    //         last snapshot; throws UncheckedIOException if the log or snapshot cannot be written
+    @Override
+    public synchronized void onEvent(Account account, AccountEvent event) {
+        try {
+            JSONObject eventJson = event.toJson();
+            eventJson.put("sequence", ++sequence);
+            log.write(eventJson.toString());
+            log.newLine();
+            log.flush();
+            if (++sinceSnapshot >= snapshotInterval) {
+                snapshot(account);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: rebuilds the stored account from the snapshot and the events logged after it, attaches it and returns
+    //         it; counterparties are resolved through directory (may be null). Returns null if nothing is stored.
+    //         Throws IOException if the files cannot be read, JSONException if the snapshot is not valid
+    public synchronized Account recover(AccountDirectory directory) throws IOException {
+        if (!Files.exists(snapshot)) {
+            return null;
+        }
+        Map<String, Object> fields = new HashMap<>();
+        Account account = new JsonAccountReader(snapshot.toString()).read(fields);
+        account.getUser().setAccount(account);
+        if (!(fields.get(EVENT_SEQUENCE) instanceof Number)) {
+            throw new JSONException("Snapshot has no event sequence");
+        }
+        sequence = ((Number) fields.get(EVENT_SEQUENCE)).longValue();
+        if (Files.exists(events)) {
+            replayLog(new AccountReplayer(account, directory));
+        }
+        attach(account);
+        return account;
+    }
+
+    //MODIFY: this
+    //EFFECTS: closes the log
+    public synchronized void close() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: replays events logged after the snapshot, stopping at a line cut short by a crash mid-write
+    private void replayLog(AccountReplayer replayer) throws IOException {
+        for (String line : Files.readAllLines(events, StandardCharsets.UTF_8)) {
+            JSONObject eventJson;
+            try {
+                eventJson = new JSONObject(line);
+            } catch (JSONException e) {
+                return;
+            }
+            long eventSequence = eventJson.getLong("sequence");
+            if (eventSequence > sequence) {
+                replayer.replay(parseEvent(eventJson));
+                sequence = eventSequence;
+            }
+        }
+    }
+
+    //MODIFY: this
+    //EFFECTS: atomically replaces the snapshot with account as of the last recorded event, then starts a new log.
+    //         The account is streamed to a temporary file, which then replaces the snapshot in one move
+    private void snapshot(Account account) throws IOException {
+        Path temp = snapshot.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        JsonAccountWriter writer = new JsonAccountWriter(temp.toString());
+        writer.open();
+        writer.write(account, Map.of(EVENT_SEQUENCE, sequence));
+        writer.close();
+        if (writer.hasFailed()) {
+            throw new IOException("Could not write snapshot " + temp);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        close();
+        log = Files.newBufferedWriter(events, StandardCharsets.UTF_8);
+        sinceSnapshot = 0;
+    }
+
+    //EFFECTS: parses event from JSON object, throws JSONException if it is not a known event
+    static AccountEvent parseEvent(JSONObject eventJson) {
+        String name = eventJson.getString("event");
+        long balanceAfter = Money.toCents(eventJson.getDouble("balanceAfter"));
+        MoneyMovedFactory moneyMoved = MONEY_MOVED_EVENTS.get(name);
+        if (moneyMoved != null) {
+            return parseMoneyMoved(moneyMoved, eventJson, balanceAfter);
+        }
+        switch (name) {
+            case BoostAdded.NAME:
+                return new BoostAdded(JsonAccountReader.parseBoost(eventJson.getJSONObject("boost")), balanceAfter);
+            case CardAdded.NAME:
+                return new CardAdded(JsonAccountReader.parseCreditCard(eventJson.getJSONObject("card")), balanceAfter);
+            case FriendReferred.NAME:
+                return new FriendReferred(eventJson.getString("email"), balanceAfter);
+            default:
+                throw new JSONException("Unknown event: " + name);
+        }
+    }
+
+    //EFFECTS: parses an event for a transaction that moved money from JSON object, made by factory
+    private static AccountEvent parseMoneyMoved(MoneyMovedFactory factory, JSONObject eventJson,
+                                                long balanceAfter) {
+        return factory.create(eventJson.getString("transactionId"),
+                eventJson.getString("senderId"), eventJson.getString("senderUsername"),
+                eventJson.getString("recipientId"), eventJson.getString("recipientUsername"),
+                Money.toCents(eventJson.getDouble("amount")), LocalDate.parse(eventJson.getString("date")),
+                Transaction.Status.valueOf(eventJson.getString("status")), balanceAfter);
+    }
+
+    // Makes a money moved event of one kind from its stored fields
+    private interface MoneyMovedFactory {
+        MoneyMovedEvent create(String transactionId, String senderId, String senderUsername, String recipientId,
+                               String recipientUsername, long amount, LocalDate date, Transaction.Status status,
+                               long balanceAfter);
+    }
+}
@@ -2,19 +2,31 @@ package persistence;
 
 import model.*;
 import model.boosts.*;
-import org.json.JSONArray;
+import model.exceptions.InvalidBoostExpressionException;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 //CITATION: Structure of this interface is modeled after JsonSerializationDemo
 //          URL: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo/
 // Represents a reader that reads account info from JSON data stored in file
 public class JsonAccountReader {
+    private static final int BUFFER_SIZE = 1 << 16;
     private String source;
 
     // EFFECTS: constructs reader to read from source file
@@ -25,98 +37,145 @@ public class JsonAccountReader {
     // EFFECTS: reads account from file and returns it;
     // throws IOException if an error occurs reading data from file
     public Account read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parseAccount(jsonObject);
+        return read(new HashMap<>());
     }
 
-    // EFFECTS: reads source file as string and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> contentBuilder.append(s));
+    // MODIFIES: fields
+    // EFFECTS: reads account like read(), also putting the value of every top-level field of the file that is not
+    // an array, such as fields written by JsonAccountWriter.write(account, extraFields), into fields
+    Account read(Map<String, Object> fields) throws IOException {
+        try (Reader reader = openReader(source)) {
+            return parseAccount(new JSONTokener(reader), fields);
         }
+    }
 
-        return contentBuilder.toString();
+    // EFFECTS: opens a buffered reader over the bytes of source file
+    private static Reader openReader(String source) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+        Reader decoder = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE);
+        return new BufferedReader(decoder, BUFFER_SIZE);
     }
 
+    // MODIFIES: fields
+    // EFFECTS: parses account from tokener one field at a time, putting its fields that are not arrays into fields.
+    //          Elements of the transactions, credit cards and boosts arrays are turned into model objects as they
+    //          are read, so at most one element is held as JSON at any time, however long the account's history.
+    //          Reads both format version 1, where every transaction holds its recipient and sender, and version 2,
+    //          where it refers to them by account id
+    private Account parseAccount(JSONTokener tokener, Map<String, Object> fields) {
+        StreamedAccount parts = new StreamedAccount();
+        expect(tokener, '{');
+        do {
+            String key = tokener.nextValue().toString();
+            expect(tokener, ':');
+            parts.read(key, tokener);
+        } while (hasNext(tokener, '}'));
+        for (String key : parts.fields.keySet()) {
+            fields.put(key, parts.fields.get(key));
+        }
+        return parts.toAccount();
+    }
 
-    // EFFECTS: parses account from JSON object and returns it
-    private Account parseAccount(JSONObject jsonObject) {
-        Account account = jsonAccountToAccount(jsonObject);
-        addTransactions(account, jsonObject);
-        addCreditCards(account, jsonObject);
-        addBoosts(account, jsonObject);
-        return account;
+    // EFFECTS: reads a JSON array of objects from tokener, handing each object to element as soon as it is read;
+    //          throws JSONException if the next value is not such an array
+    private static void readArray(JSONTokener tokener, Consumer<JSONObject> element) {
+        expect(tokener, '[');
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        do {
+            Object value = tokener.nextValue();
+            if (!(value instanceof JSONObject)) {
+                throw tokener.syntaxError("Expected an object");
+            }
+            element.accept((JSONObject) value);
+        } while (hasNext(tokener, ']'));
+    }
 
+    // EFFECTS: reads a separator and returns true if another member follows, false if close ends the object or
+    //          array; throws JSONException otherwise
+    private static boolean hasNext(JSONTokener tokener, char close) {
+        char c = tokener.nextClean();
+        if (c == ',') {
+            return true;
+        }
+        if (c == close) {
+            return false;
+        }
+        throw tokener.syntaxError("Expected ',' or '" + close + "'");
     }
 
-    // EFFECTS: parses transactions from JSON object and runs add transaction
-    private void addTransactions(Account account, JSONObject jsonObject) {
-        JSONArray transactionArray = jsonObject.getJSONArray("transactions");
-        for (Object t : transactionArray) {
-            JSONObject nextTransaction = (JSONObject) t;
-            addTransaction(account, nextTransaction);
+    // EFFECTS: reads given character, skipping whitespace; throws JSONException if something else comes next
+    private static void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
         }
     }
 
-    // MODIFIES: account
-    // EFFECTS: parses transaction from JSON object and adds them to account
-    private void addTransaction(Account account, JSONObject transactionJson) {
-        int amount = transactionJson.getInt("amount");
+    // EFFECTS: parses transaction from JSON object and restores it exactly as it was saved, without settling it
+    //          again; recipient and sender are either held in the transaction or referred to by an id already in
+    //          identities
+    private Transaction parseTransaction(JSONObject transactionJson, IdentityMap identities) {
+        long amount = Money.toCents(transactionJson.getDouble("amount"));
         String type = transactionJson.getString("type");
         String status = transactionJson.getString("status");
         String id = transactionJson.getString("id");
+        LocalDate date = LocalDate.parse(transactionJson.getString("date"));
 
-        JSONObject recipient = transactionJson.getJSONObject("recipient");
-        Account modelRecipientAcc = jsonAccountToAccount(recipient);
-
-        JSONObject sender = transactionJson.getJSONObject("sender");
-        Account modelSenderAcc = jsonAccountToAccount(sender);
+        Account modelRecipientAcc = counterparty(transactionJson, "recipient", identities);
+        Account modelSenderAcc = counterparty(transactionJson, "sender", identities);
 
-        Transaction transaction = new Transaction(modelRecipientAcc, modelSenderAcc,
-                amount, Transaction.Type.valueOf(type), Transaction.Status.valueOf(status));
-
-        transaction.setId(id);
-
-        account.addToTransactions(transaction);
+        return Transaction.restore(id, modelRecipientAcc, modelSenderAcc, amount, date,
+                Transaction.Status.valueOf(status), Transaction.Type.valueOf(type));
     }
 
-    // EFFECTS: parses credit cards from JSON object and runs add card method
-    private void addCreditCards(Account account, JSONObject jsonObject) {
-        JSONArray creditCardsArray = jsonObject.getJSONArray("creditCards");
-        for (Object c : creditCardsArray) {
-            JSONObject nextCard = (JSONObject) c;
-            addCreditCard(account, nextCard);
+    // EFFECTS: returns the account under key of transaction JSON object, parsing it if it is held there or looking
+    //          it up in identities if it is an account id; throws JSONException if the id is not known
+    private Account counterparty(JSONObject transactionJson, String key, IdentityMap identities) {
+        Object account = transactionJson.get(key);
+        if (account instanceof JSONObject) {
+            return jsonAccountToAccount((JSONObject) account, identities);
+        }
+        Account known = identities.accounts.get(account.toString());
+        if (known == null) {
+            throw new JSONException("Unknown account id: " + account);
         }
+        return known;
     }
 
-    // MODIFIES: account
-    // EFFECTS: parses credit card from JSON object and adds them to account
-    private void addCreditCard(Account account, JSONObject creditCard) {
+    // EFFECTS: parses credit card from JSON object and returns it
+    static CreditCard parseCreditCard(JSONObject creditCard) {
         String cardType = creditCard.getString("cardType");
         int cardNumber = creditCard.getInt("cardNumber");
         int expiryMonth = creditCard.getInt("expiryMonth");
         int expiryYear = creditCard.getInt("expiryYear");
-        CreditCard card = new CreditCard(cardType, cardNumber, expiryYear, expiryMonth);
-
-        account.addCreditCard(card);
+        return new CreditCard(cardType, cardNumber, expiryYear, expiryMonth);
     }
 
-    // EFFECTS: parses boosts from JSON object and runs add boost method
+    // MODIFIES: account
+    // EFFECTS: restores the promotion watermarks of JSON object, if it has any (files written before promotions
+    //          kept watermarks have none)
+    private static void addPromotionWatermarks(Account account, JSONObject jsonObject) {
+        JSONObject watermarks = jsonObject.optJSONObject("promotionWatermarks");
+        if (watermarks != null) {
+            for (String promotionId : watermarks.keySet()) {
+                account.advancePromotionWatermark(promotionId, Account.NO_WATERMARK, watermarks.getLong(promotionId));
+            }
+        }
+    }
 
-    private void addBoosts(Account account, JSONObject jsonObject) {
-        JSONArray boostsArray = jsonObject.getJSONArray("boosts");
-        for (Object b : boostsArray) {
-            JSONObject nextBoost = (JSONObject) b;
-            addBoost(account, nextBoost);
+    //EFFECTS: compiles boost expression, throws JSONException if it is not valid
+    private static Boost compileBoost(String expression) {
+        try {
+            return BoostExpression.compile(expression);
+        } catch (InvalidBoostExpressionException e) {
+            throw new JSONException(e.getMessage());
         }
     }
 
-    //MODIFIES: account
-    //EFFECTS: parses boost info from JSON objects and creates boost to add to account
-    private void addBoost(Account acc, JSONObject boostJson) {
+    //EFFECTS: parses boost from JSON object and returns it
+    static Boost parseBoost(JSONObject boostJson) {
         String boostType = boostJson.getString("boostType");
         BoostType enumType = BoostType.valueOf(boostType);
         Boost boost = null;
@@ -131,33 +190,45 @@ public class JsonAccountReader {
             case HIGHROLLER:
                 boost = new HighRollerBoost();
                 break;
+            case CUSTOM:
+                boost = compileBoost(boostJson.getString("expression"));
+                break;
         }
-
-
-        acc.addBoost(boost);
-
-
+        return boost;
     }
 
-    //EFFECTS: creates an account from JSON account object
-    private Account jsonAccountToAccount(JSONObject jsonAccount) {
-        int balance = jsonAccount.getInt("balance");
+    //MODIFIES: identities
+    //EFFECTS: returns the account of JSON account object: the one already created for its id while reading this
+    //         file, or a new one, which is added to identities
+    private Account jsonAccountToAccount(JSONObject jsonAccount, IdentityMap identities) {
         String id = jsonAccount.getString("id");
+        Account known = identities.accounts.get(id);
+        if (known != null) {
+            return known;
+        }
+        double balance = jsonAccount.getDouble("balance");
         JSONObject jsonUser = jsonAccount.getJSONObject("user");
-        User modelUser = jsonUserToUser(jsonUser);
+        User modelUser = jsonUserToUser(jsonUser, identities);
         Account modelAcc = new Account(modelUser, balance);
         modelAcc.setId(id);
+        identities.accounts.put(id, modelAcc);
 
         return modelAcc;
     }
 
 
-    //EFFECTS: creates a user based on json user
-    private User jsonUserToUser(JSONObject jsonUser) {
+    //MODIFIES: identities
+    //EFFECTS: returns the user of JSON user: the one already created for its id while reading this file, or a new
+    //         one, which is added to identities
+    private User jsonUserToUser(JSONObject jsonUser, IdentityMap identities) {
+        String id = jsonUser.getString("id");
+        User known = identities.users.get(id);
+        if (known != null) {
+            return known;
+        }
         String userType = jsonUser.getString("userType");
         String userName = jsonUser.getString("username");
         String location = jsonUser.getString("location");
-        String id = jsonUser.getString("id");
         User user;
 
         if (User.UserType.valueOf(userType) == User.UserType.PERSONAL) {
@@ -170,7 +241,110 @@ public class JsonAccountReader {
             user = new BusinessUser(userName, location, companyName, BusinessUser.BusinessType.valueOf(businessType));
         }
         user.setId(id);
+        identities.users.put(id, user);
 
         return user;
     }
+
+    // The accounts and users created so far while reading one file, by id, so every account and user is created
+    // once however many transactions refer to it. Every copy of an account in a file holds the same id, user and
+    // balance, so the loaded account's own id also resolves to the loaded account, whichever copy is read first
+    private static final class IdentityMap {
+        private final Map<String, Account> accounts = new HashMap<>();
+        private final Map<String, User> users = new HashMap<>();
+    }
+
+    // The parts of an account read so far from a stream of its fields, which may come in any order. Version 2
+    // transactions read before the accounts table and this account's own fields are held as JSON until both are
+    // read, since they may refer to either
+    private final class StreamedAccount {
+        private final IdentityMap identities = new IdentityMap();
+        private final JSONObject fields = new JSONObject();
+        private final List<Transaction> transactions = new ArrayList<>();
+        private final List<JSONObject> unresolved = new ArrayList<>();
+        private final List<CreditCard> cards = new ArrayList<>();
+        private final List<Boost> boosts = new ArrayList<>();
+        private boolean accountsRead;               // true once the accounts table is read
+        private Account owner;                      // the account being read, null until its fields are read
+
+        // MODIFIES: this
+        // EFFECTS: reads the value of field key from tokener
+        private void read(String key, JSONTokener tokener) {
+            switch (key) {
+                case "transactions":
+                    readArray(tokener, this::addTransaction);
+                    break;
+                case "creditCards":
+                    readArray(tokener, c -> cards.add(parseCreditCard(c)));
+                    break;
+                case "boosts":
+                    readArray(tokener, b -> boosts.add(parseBoost(b)));
+                    break;
+                case "accounts":
+                    readAccounts(tokener);
+                    break;
+                default:
+                    fields.put(key, tokener.nextValue());
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses transaction, or holds it if it refers to accounts by id that cannot be resolved yet
+        private void addTransaction(JSONObject transactionJson) {
+            if (transactionJson.opt("recipient") instanceof String) {
+                unresolved.add(transactionJson);
+                resolveHeld();
+            } else {
+                transactions.add(parseTransaction(transactionJson, identities));
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the accounts table from tokener, then parses the transactions held until it was read
+        private void readAccounts(JSONTokener tokener) {
+            Object table = tokener.nextValue();
+            if (!(table instanceof JSONObject)) {
+                throw tokener.syntaxError("Expected an object");
+            }
+            for (String id : ((JSONObject) table).keySet()) {
+                jsonAccountToAccount(((JSONObject) table).getJSONObject(id), identities);
+            }
+            accountsRead = true;
+            resolveHeld();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses the held transactions in order once the accounts table is read and this account is
+        //          created, creating it first if its id, balance and user have been read
+        private void resolveHeld() {
+            if (owner == null && fields.has("id") && fields.has("balance") && fields.has("user")) {
+                owner = jsonAccountToAccount(fields, identities);
+            }
+            if (accountsRead && owner != null) {
+                for (JSONObject transactionJson : unresolved) {
+                    transactions.add(parseTransaction(transactionJson, identities));
+                }
+                unresolved.clear();
+            }
+        }
+
+        // EFFECTS: creates account from the fields read and adds its transactions, credit cards and boosts to it;
+        //          throws JSONException if the format version is not supported or transactions refer to accounts
+        //          but there is no accounts table
+        private Account toAccount() {
+            if (fields.optInt("version", 1) > JsonAccountWriter.FORMAT_VERSION) {
+                throw new JSONException("Unsupported format version: " + fields.get("version"));
+            }
+            owner = jsonAccountToAccount(fields, identities);
+            resolveHeld();
+            if (!unresolved.isEmpty()) {
+                throw new JSONException("Transactions refer to accounts but there is no accounts table");
+            }
+            transactions.forEach(owner::addToTransactions);
+            cards.forEach(owner::addCreditCard);
+            boosts.forEach(owner::addBoost);
+            addPromotionWatermarks(owner, fields);
+            return owner;
+        }
+    }
 }
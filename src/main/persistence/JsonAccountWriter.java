@@ -1,37 +1,109 @@
 package persistence;
 
 import model.Account;
+import model.CreditCard;
+import model.Transaction;
+import model.boosts.Boost;
 import org.json.JSONObject;
 
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 //CITATION: Structure of this interface is modeled after JsonSerializationDemo
 //          URL: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo/
-//Represents a writer that write the JSON representation of an account to file
+//Represents a writer that write the JSON representation of an account to file. The account is written field by
+//field and its credit cards, boosts and transactions one element at a time, straight to a buffered file channel,
+//so saving never builds the whole account as one JSON tree or String.
+//Files are written in format version 2: every account the transactions refer to is written once, in an accounts
+//table keyed by account id ahead of the transactions, and each transaction refers to its recipient and sender by id
 public class JsonAccountWriter {
-    private static final int TAB = 4;
+    public static final int TAB = 4;
+    public static final int FORMAT_VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final int indent;           // spaces per nesting level, 0 for compact output
     private PrintWriter writer;
     private String destination;
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write compact JSON to destination file
     public JsonAccountWriter(String destination) {
+        this(destination, 0);
+    }
+
+    // REQUIRES: indent >= 0
+    // EFFECTS: constructs writer to write to destination file, indenting each nesting level by given number of
+    // spaces, or compact if indent is 0
+    public JsonAccountWriter(String destination, int indent) {
         this.destination = destination;
+        this.indent = indent;
     }
 
     // MODIFIES: this
     // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
     // be opened for writing
     public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+        try {
+            FileChannel channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            writer = new PrintWriter(new BufferedWriter(
+                    Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE));
+        } catch (IOException | InvalidPathException e) {
+            FileNotFoundException notOpened = new FileNotFoundException(destination);
+            notOpened.initCause(e);
+            throw notOpened;
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of account to file
+    // EFFECTS: writes JSON representation of account to file. The account's fields and a snapshot of its
+    // transactions are taken under its lock, which is then released before anything is written, so saving never
+    // blocks transactions on the account; the accounts table and the transactions come from the same snapshot
     public void write(Account account) {
-        JSONObject accountJson = account.toJson();
-        saveToFile(accountJson.toString(TAB));
+        write(account, Collections.emptyMap());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes account like write(account), with the given extra top-level fields after the format version;
+    // JsonAccountReader.read(fields) hands them back
+    void write(Account account, Map<String, ?> extraFields) {
+        double balance;
+        List<CreditCard> cards;
+        List<Boost> boosts;
+        Map<String, Long> watermarks;
+        List<Transaction> transactions;
+        synchronized (account) {
+            balance = account.getBalance();
+            cards = new ArrayList<>(account.getCreditCards());
+            boosts = new ArrayList<>(account.getBoosts());
+            watermarks = account.getPromotionWatermarks();
+            transactions = account.snapshotTransactions();
+        }
+        writer.write('{');
+        writeKey("version", true);
+        writer.write(Integer.toString(FORMAT_VERSION));
+        for (Map.Entry<String, ?> field : extraFields.entrySet()) {
+            writeKey(field.getKey(), false);
+            writer.write(JSONObject.valueToString(field.getValue()));
+        }
+        writeKey("balance", false);
+        writer.write(JSONObject.valueToString(balance));
+        writeFields(account, cards, boosts, watermarks, transactions);
+        newline(0);
+        writer.write('}');
     }
 
     // MODIFIES: this
@@ -40,9 +112,98 @@ public class JsonAccountWriter {
         writer.close();
     }
 
+    // EFFECTS: returns true if writing to or closing the file failed since it was opened
+    public boolean hasFailed() {
+        return writer.checkError();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the top-level fields of account after its balance, taking its credit cards, boosts,
+    // promotion watermarks and transactions from the given snapshots
+    private void writeFields(Account account, List<CreditCard> cards, List<Boost> boosts,
+                             Map<String, Long> watermarks, List<Transaction> transactions) {
+        writeKey("id", false);
+        writer.write(JSONObject.quote(account.getId()));
+        writeKey("user", false);
+        account.getUser().toJson().write(writer, indent, indent);
+        writeArray("creditCards", cards::forEach, CreditCard::toJson);
+        writeArray("boosts", boosts::forEach, Boost::toJson);
+        writeKey("promotionWatermarks", false);
+        new JSONObject(watermarks).write(writer, indent, indent);
+        writeAccounts(transactions);
+        writeArray("transactions", transactions::forEach, Transaction::toJsonWithAccountIds);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes key of a top-level field, preceded by a comma unless it is the first field
+    private void writeKey(String key, boolean first) {
+        if (!first) {
+            writer.write(',');
+        }
+        newline(1);
+        writer.write(JSONObject.quote(key));
+        writer.write(indent > 0 ? ": " : ":");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the accounts table: every account the given transactions refer to, once, keyed by account id
+    private void writeAccounts(List<Transaction> transactions) {
+        Map<String, Account> accounts = new LinkedHashMap<>();
+        transactions.forEach(t -> {
+            accounts.putIfAbsent(t.getRecipientAccount().getId(), t.getRecipientAccount());
+            accounts.putIfAbsent(t.getSenderAccount().getId(), t.getSenderAccount());
+        });
+        writeKey("accounts", false);
+        writer.write('{');
+        boolean first = true;
+        for (Account a : accounts.values()) {
+            writeSeparator(first);
+            writer.write(JSONObject.quote(a.getId()));
+            writer.write(indent > 0 ? ": " : ":");
+            a.toSummaryJson().write(writer, indent, 2 * indent);
+            first = false;
+        }
+        if (!first) {
+            newline(1);
+        }
+        writer.write('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a top-level field holding the elements handed out by elements as a JSON array, turning one
+    // element at a time into JSON
+    private <T> void writeArray(String key, Consumer<Consumer<T>> elements, Function<T, JSONObject> toJson) {
+        writeKey(key, false);
+        writer.write('[');
+        boolean[] empty = {true};
+        elements.accept(element -> {
+            writeSeparator(empty[0]);
+            toJson.apply(element).write(writer, indent, 2 * indent);
+            empty[0] = false;
+        });
+        if (!empty[0]) {
+            newline(1);
+        }
+        writer.write(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a member of a top-level array or object, preceded by a comma unless it is the first member
+    private void writeSeparator(boolean first) {
+        if (!first) {
+            writer.write(',');
+        }
+        newline(2);
+    }
+
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: starts a new line indented to given nesting depth, unless writing compact JSON
+    private void newline(int depth) {
+        if (indent > 0) {
+            writer.write('\n');
+            for (int i = 0; i < depth * indent; i++) {
+                writer.write(' ');
+            }
+        }
     }
 }
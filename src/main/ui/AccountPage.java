@@ -204,7 +204,10 @@ public class AccountPage extends JPanel implements ActionListener, Page {
                 createdUser = new BusinessUser(usernameData, locationData, businessNameData, type);
             }
 
-            this.app.setUser(createdUser);
+            if (!this.app.setUser(createdUser)) {
+                this.app.setStatus("Oops! " + usernameData + " is already taken, try another username!");
+                return;
+            }
             ImageIcon tada = this.app.getEmoji("party", 25, 25);
 
             this.app.setStatus("Welcome " + usernameData + " from "
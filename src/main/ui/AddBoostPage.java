@@ -10,6 +10,7 @@ import model.boosts.ShopaholicBoost;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -123,9 +124,11 @@ public class AddBoostPage extends JPanel implements Page, ActionListener, ItemLi
                 Object boostToRemove = listModel.remove(index);
                 boostJList.clearSelection();
 
-                Set<Boost> existingBoosts = this.app.getUser().getAccount().getBoosts();
-                if (existingBoosts.contains(boostToRemove)) {
-                    existingBoosts.remove(boostToRemove);
+                Account account = this.app.getUser().getAccount();
+                for (Boost boost : new ArrayList<>(account.getBoosts())) {
+                    if (boost.getBoostType() == boostToRemove) {
+                        account.removeBoost(boost);
+                    }
                 }
             }
         }
@@ -10,13 +10,16 @@ import persistence.JsonAccountWriter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 import static model.BusinessUser.BusinessType.*;
 
 //Cash App
 public class CashApp {
     private static final String JSON_ACCOUNT_STORE = "./data/account.json";
+    private static final long CASH_BACK_POST_SECONDS = 60;
     private final Scanner input;
     private User user;
     private JsonAccountReader jsonAccountReader;
@@ -24,14 +27,30 @@ public class CashApp {
 
     private final User cashAppUser =
             new BusinessUser("cashapp", "Vancouver, BC", "CashApp", RETAILER);
-    private final Account cashAppAccount = new Account(cashAppUser, 1000000.00);
+    private final Ledger ledger = new Ledger();
+    private final Account cashAppAccount = new Account(cashAppUser, 1000000.00, ledger);
+    private final AccountDirectory accountDirectory = new AccountDirectory();
+    private final SettlementEngine settlementEngine = new SettlementEngine();
+    private final CashBackPoster cashBackPoster = new CashBackPoster(accountDirectory);
 
     //EFFECTS: runs the cash app
     public CashApp() {
         input = new Scanner(System.in);
+        cashAppAccount.enableBalanceStriping();
+        cashAppAccount.useColumnarHistory();
+        accountDirectory.register(cashAppAccount);
         jsonAccountWriter = new JsonAccountWriter(JSON_ACCOUNT_STORE);
         jsonAccountReader = new JsonAccountReader(JSON_ACCOUNT_STORE);
         runLoginFlow();
+        if (user != null && !accountDirectory.register(user.getAccount())) {
+            System.out.println("Sorry, the username " + user.getUsername() + " is already taken!");
+            return;
+        }
+        if (user != null) {
+            user.getAccount().setLedger(ledger);
+            user.getAccount().enableCashBackAccrual();
+        }
+        cashBackPoster.start(CASH_BACK_POST_SECONDS, TimeUnit.SECONDS);
         runApp();
     }
 
@@ -54,6 +73,8 @@ public class CashApp {
             }
         }
 
+        cashBackPoster.shutdown();
+        settlementEngine.shutdown();
         System.out.println("\nThanks for using CashApp, don't forget to tell your friends!");
     }
 
@@ -162,6 +183,9 @@ public class CashApp {
             case "a":
                 runReferFriendsFlow();
                 break;
+            case "pay":
+                runPayRequestsFlow();
+                break;
             case "save":
                 saveAccountFlow();
                 break;
@@ -204,6 +228,7 @@ public class CashApp {
         System.out.println("\tp -> make purchase");
         System.out.println("\ts -> send money");
         System.out.println("\tr -> request money");
+        System.out.println("\tpay -> pay money requests");
         System.out.println("\tc -> update credit cards");
         System.out.println("\tm -> add boosts to earn cashback!");
         System.out.println("\th -> view transaction history");
@@ -535,14 +560,16 @@ public class CashApp {
         System.out.println("\nWe're glad you want to try out our send money flow.");
         System.out.println("\nCashApp is currently in development so you can only send to our account.");
 
-        // Prompt the user for input but don't use it until we save usernames in a database/file
         System.out.println("\nWhat is the CashApp username you'd like to send to (psst it's $cashapp)?");
-        String username = input.next();
+        Account recipient = findAccount(input.next());
+        if (recipient == null) {
+            return;
+        }
 
         System.out.println("\nHow much would you like to send?");
         int sendAmount = input.nextInt();
 
-        Transaction transaction = user.getAccount().sendMoney(cashAppAccount, sendAmount);
+        Transaction transaction = user.getAccount().sendMoney(recipient, sendAmount);
 
         if (transaction.getStatus() == Transaction.Status.COMPLETE) {
             System.out.println("\nNice, we got the money. Thanks for helping the development of CashApp.");
@@ -558,14 +585,16 @@ public class CashApp {
         System.out.println("\nWe're glad you want to make a purchase!");
         System.out.println("\nCashApp is currently in development so you can only send to our account.");
 
-        // Prompt the user for input but don't use it until we save usernames in a database/file
         System.out.println("\nWhat is the CashApp username you'd like to send to (psst it's $cashapp)?");
-        String username = input.next();
+        Account company = findAccount(input.next());
+        if (company == null) {
+            return;
+        }
 
         System.out.println("\nWhat is your purchase total?");
         int purchaseAmount = input.nextInt();
 
-        Transaction transaction = user.getAccount().makePurchase(cashAppAccount, purchaseAmount);
+        Transaction transaction = user.getAccount().makePurchase(company, purchaseAmount);
 
         if (transaction.getStatus() == Transaction.Status.COMPLETE) {
             System.out.println("\nNice, you successfully made your purchase and eligible for cashback! "
@@ -582,23 +611,52 @@ public class CashApp {
         System.out.println("\nWe're glad you want to try out our send money flow.");
         System.out.println("\nCashApp is currently in development so you can only request from our account.");
 
-        // Prompt the user for input but don't use it until we save usernames in a database/file
-        System.out.println("\nWhat is the CashApp username you'd like to send to (psst it's $cashapp)?");
-        String username = input.next();
+        System.out.println("\nWhat is the CashApp username you'd like to request from (psst it's $cashapp)?");
+        Account payer = findAccount(input.next());
+        if (payer == null) {
+            return;
+        }
 
         System.out.println("\nHow much would you like to request?");
         int requestAmount = input.nextInt();
 
-        Transaction transaction = user.getAccount().requestMoney(cashAppAccount, requestAmount);
+        user.getAccount().requestMoney(payer, requestAmount);
 
-        if (transaction.getStatus() == Transaction.Status.FAILED) {
-            System.out.println("\nSomething went wrong with the transaction.");
-        } else {
-            System.out.println("\nYour money request has been processed.");
-            System.out.println("\nCheck your transactions to check the status.");
+        System.out.println("\nYour money request has been sent.");
+        System.out.println("\nIt will be paid once " + payer.getUser().getUsername() + " accepts it.");
+    }
+
+    //MODIFY: this
+    //EFFECTS: process user command to accept or skip each money request made of user
+    private void runPayRequestsFlow() {
+        List<Transaction> requests = user.getAccount().getRequestsToPay();
+        if (requests.isEmpty()) {
+            System.out.println("\nNobody has requested money from you.");
+            return;
+        }
+        for (Transaction request : requests) {
+            System.out.println("\n" + request.getRecipientUsername() + " requested $" + request.getAmount()
+                    + " on " + request.getDate() + ". Pay it? (y/n)");
+            if (!input.next().equalsIgnoreCase("y")) {
+                continue;
+            }
+            if (settlementEngine.accept(user.getAccount(), request)) {
+                System.out.println("\nYou accepted the request, check your transactions for its status.");
+            } else {
+                System.out.println("\nWe're busy right now, this request will stay pending.");
+            }
         }
     }
 
+    //EFFECTS: returns the account registered under given username, prints a message and returns null if none
+    private Account findAccount(String username) {
+        Account account = accountDirectory.findByUsername(username);
+        if (account == null) {
+            System.out.println("\nHmm... we couldn't find anyone called " + username + " on CashApp.");
+        }
+        return account;
+    }
+
     //EFFECTS: formats transaction header view
     private void printTransactionHeader() {
         System.out.println("DATE\t\tRECIPIENT\t\tSENDER\t\tAMOUNT\t\tSTATUS");
@@ -616,41 +674,32 @@ public class CashApp {
 
     //EFFECTS: prints all pending transactions
     private void printPendingTransactions() {
-        if (user.getAccount().getPendingTransactions().size() > 0) {
+        if (user.getAccount().getTransactionCount(Transaction.Status.PENDING) > 0) {
             System.out.println("\nHere are your PENDING transactions:");
 
             printTransactionHeader();
-            for (int i = 0; i < user.getAccount().getPendingTransactions().size(); i++) {
-                Transaction transaction = (Transaction) user.getAccount().getPendingTransactions().get(i);
-                printTransaction(transaction);
-            }
+            user.getAccount().forEachTransaction(Transaction.Status.PENDING, this::printTransaction);
         }
     }
 
     //EFFECTS: prints all failed transactions
     private void printFailedTransactions() {
-        if (user.getAccount().getFailedTransactions().size() > 0) {
+        if (user.getAccount().getTransactionCount(Transaction.Status.FAILED) > 0) {
             System.out.println("\nHere are your FAILED transactions:");
 
             printTransactionHeader();
-            for (int i = 0; i < user.getAccount().getFailedTransactions().size(); i++) {
-                Transaction transaction = (Transaction) user.getAccount().getFailedTransactions().get(i);
-                printTransaction(transaction);
-            }
+            user.getAccount().forEachTransaction(Transaction.Status.FAILED, this::printTransaction);
         }
     }
 
     //EFFECTS: prints all completed transactions
 
     private void printCompletedTransactions() {
-        if (user.getAccount().getCompletedTransactions().size() > 0) {
+        if (user.getAccount().getTransactionCount(Transaction.Status.COMPLETE) > 0) {
             System.out.println("\nHere are your COMPLETED transactions:");
 
             printTransactionHeader();
-            for (int i = 0; i < user.getAccount().getCompletedTransactions().size(); i++) {
-                Transaction transaction = (Transaction) user.getAccount().getCompletedTransactions().get(i);
-                printTransaction(transaction);
-            }
+            user.getAccount().forEachTransaction(Transaction.Status.COMPLETE, this::printTransaction);
         }
     }
     //EFFECTS: prints all pending, failed, and completed transactions for complete history
@@ -816,6 +865,7 @@ public class CashApp {
     //EFFECTS: saves account activities to file
     private void saveAccountFlow() {
         try {
+            user.getAccount().postAccruedCashBack();
             jsonAccountWriter.open();
             jsonAccountWriter.write(user.getAccount());
             jsonAccountWriter.close();
@@ -1,5 +1,12 @@
 package ui;
 
+import model.Account;
+import model.AccountDirectory;
+import model.BusinessUser;
+import model.CashBackPoster;
+import model.Ledger;
+import model.SettlementEngine;
+import model.TransactionService;
 import model.User;
 import persistence.JsonAccountReader;
 import persistence.JsonAccountWriter;
@@ -9,8 +16,11 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 //CITATION: Structure of this GUI is modeled after SimpleDrawingPlayer
 //          URL: https://github.students.cs.ubc.ca/CPSC210/SimpleDrawingPlayer-Complete
@@ -19,15 +29,22 @@ public class MainApp extends JFrame implements ActionListener {
 
     public static final int WIDTH = 450;
     public static final int HEIGHT = 800;
+    private static final long CASH_BACK_POST_SECONDS = 60;
     private static final String JSON_ACCOUNT_STORE = "./data/account.json";
     private static JsonAccountReader jsonAccountReader = new JsonAccountReader(JSON_ACCOUNT_STORE);
     private static JsonAccountWriter jsonAccountWriter = new JsonAccountWriter(JSON_ACCOUNT_STORE);
     private static User user;
+    private static Ledger ledger = new Ledger();
+    private static AccountDirectory accountDirectory = createAccountDirectory();
+    private static SettlementEngine settlementEngine = new SettlementEngine();
+    private static TransactionService transactionService = new TransactionService();
+    private static CashBackPoster cashBackPoster = new CashBackPoster(accountDirectory);
     private JLabel status = new JLabel();
     private JPanel container;
 
     public MainApp() {
         super("Cash App '98");
+        cashBackPoster.start(CASH_BACK_POST_SECONDS, TimeUnit.SECONDS);
         initializeGraphics();
     }
 
@@ -48,6 +65,22 @@ public class MainApp extends JFrame implements ActionListener {
         return user;
     }
 
+    public static AccountDirectory getAccountDirectory() {
+        return accountDirectory;
+    }
+
+    public static Ledger getLedger() {
+        return ledger;
+    }
+
+    public static SettlementEngine getSettlementEngine() {
+        return settlementEngine;
+    }
+
+    public static TransactionService getTransactionService() {
+        return transactionService;
+    }
+
     public JPanel getContainer() {
         return container;
     }
@@ -66,8 +99,30 @@ public class MainApp extends JFrame implements ActionListener {
         status.setIcon(icon);
     }
 
-    public static void setUser(User user) {
+    //MODIFY: this
+    //EFFECTS: sets the logged in user, makes their account reachable from the account directory, posts its
+    //         balance changes to the app's ledger and collects its cashback for the cashback poster, and returns
+    //         true. Returns false and logs nobody in if the username belongs to a different account
+    public static boolean setUser(User user) {
+        if (!accountDirectory.register(user.getAccount())) {
+            return false;
+        }
+        user.getAccount().setLedger(ledger);
+        user.getAccount().enableCashBackAccrual();
         MainApp.user = user;
+        return true;
+    }
+
+    //EFFECTS: returns a directory holding the Cash App house account, the only other account until usernames are
+    //         saved to a file
+    private static AccountDirectory createAccountDirectory() {
+        AccountDirectory directory = new AccountDirectory();
+        User cashAppUser = new BusinessUser("cashapp", "Vancouver, BC", "CashApp", BusinessUser.BusinessType.RETAILER);
+        Account cashAppAccount = new Account(cashAppUser, 1000000.00, ledger);
+        cashAppAccount.enableBalanceStriping();
+        cashAppAccount.useColumnarHistory();
+        directory.register(cashAppAccount);
+        return directory;
     }
 
 
@@ -75,6 +130,13 @@ public class MainApp extends JFrame implements ActionListener {
     //EFFECTS: draws on JFrame window for CashApp and populate with card layout with different options
     public void initializeGraphics() {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cashBackPoster.shutdown();
+                settlementEngine.shutdown();
+            }
+        });
         setResizable(false);
         setSize(WIDTH, HEIGHT);
 
@@ -116,6 +178,7 @@ public class MainApp extends JFrame implements ActionListener {
     //EFFECTS: Creates app layout and adds all pages to app
     public void initializeMoreAppPages() {
         JPanel requestMoneyPage = new RequestMoneyPage(this);
+        JPanel payRequestsPage = new PayRequestsPage(this);
         JPanel sendMoneyPage = new SendMoneyPage(this);
         JPanel creditCardPage = new CreditCardPage(this);
         JPanel addCreditCard = new AddCreditCardPage(this);
@@ -123,6 +186,7 @@ public class MainApp extends JFrame implements ActionListener {
         JPanel addBoostPage = new AddBoostPage(this);
 
         container.add(requestMoneyPage, Pages.REQUEST.name());
+        container.add(payRequestsPage, Pages.PAY_REQUESTS.name());
         container.add(sendMoneyPage, Pages.SEND.name());
         container.add(creditCardPage, Pages.CREDIT_CARD.name());
         container.add(addCreditCard, Pages.ADD_CREDIT_CARD.name());
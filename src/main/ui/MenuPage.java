@@ -25,6 +25,7 @@ public class MenuPage extends JPanel implements ActionListener, Page {
     static final String CASH_OUT = "Cash Out";
     static final String MAKE_PURCHASE = "Make Purchase";
     static final String REQUEST_MONEY = "Request Money";
+    static final String PAY_REQUESTS = "Pay Requests";
     static final String UPDATE_CREDIT_CARDS = "Update Credit Cards";
     static final String SEND_MONEY = "Send Money";
     static final String TRANSACTION_HISTORY = "View Transaction History";
@@ -110,6 +111,7 @@ public class MenuPage extends JPanel implements ActionListener, Page {
 
         addMenuButton(MAKE_PURCHASE);
         addMenuButton(REQUEST_MONEY);
+        addMenuButton(PAY_REQUESTS);
         addMenuButton(SEND_MONEY);
         add(Box.createRigidArea(new Dimension(5, 25)));
 
@@ -180,15 +182,19 @@ public class MenuPage extends JPanel implements ActionListener, Page {
             case ADD_BOOST:
                 cl.show(this.app.getContainer(), Pages.ADD_BOOST.name());
                 break;
+            case PAY_REQUESTS:
+                cl.show(this.app.getContainer(), Pages.PAY_REQUESTS.name());
+                break;
         }
     }
 
     //MODIFY: JSON file
-    //EFFECTS: saves account activities to file
+    //EFFECTS: posts the cashback accrued so far, so it is not lost, then saves account activities to file
     public void saveAccountInfo() {
         JsonAccountWriter writer = this.app.getJsonWriter();
 
         try {
+            this.app.getUser().getAccount().postAccruedCashBack();
             writer.open();
             writer.write(this.app.getUser().getAccount());
             writer.close();
@@ -9,6 +9,7 @@ public enum Pages {
     WITHDRAW,
     PURCHASE,
     REQUEST,
+    PAY_REQUESTS,
     SEND,
     CREDIT_CARD,
     TRANSACTION,
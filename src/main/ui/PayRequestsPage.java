@@ -0,0 +1,93 @@
+package ui;
+
+import model.Transaction;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.List;
+
+// class that creates pay requests page that lets user accept money requests other users made of them
+public class PayRequestsPage extends JPanel implements ActionListener, Page {
+    private MainApp app;
+    private JButton payButton = new JButton("Pay Request");
+    private JList<String> requestsJList;
+    private List<Transaction> requests;
+
+    //Effects: constructor that create page & adds component & action listener to update and revalidate page
+    // when component changes.
+    public PayRequestsPage(MainApp app) {
+        this.app = app;
+
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent evt) {
+                removeAll();
+
+                createPage();
+
+                revalidate();
+                repaint();
+            }
+        });
+
+        payButton.addActionListener(this);
+
+        setOpaque(false);
+    }
+
+    //MODIFY: this
+    //EFFECTS: creates page that lists money requests waiting for user to pay them
+    @Override
+    public void createPage() {
+        ImageIcon man = this.app.getEmoji("man", 50, 50);
+        new PageTitle(this, "Pay Requests", man);
+
+        DefaultListModel<String> listModel = new DefaultListModel<>();
+
+        if (this.app.getUser() != null) {
+            requests = this.app.getUser().getAccount().getRequestsToPay();
+
+            for (Transaction request : requests) {
+                listModel.addElement(request.getRecipientUsername() + " requested $" + request.getAmount()
+                        + " on " + request.getDate());
+            }
+        }
+
+        requestsJList = new JList<>(listModel);
+        requestsJList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        requestsJList.setPreferredSize(new Dimension(400, 150));
+
+        add(requestsJList);
+
+        add(Box.createRigidArea(new Dimension(400, 25)));
+
+        add(payButton);
+
+        add(new ReturnToMenuButton(this.app.getContainer()));
+    }
+
+    //MODIFY: this
+    // EFFECTS: action listener that listens to pay button click, accepts the selected request for settlement,
+    // sets status message & redirects to main menu
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        CardLayout cl = (CardLayout) (this.app.getContainer().getLayout());
+        int index = requestsJList.getSelectedIndex();
+
+        if (e.getSource() == payButton && index >= 0) {
+            Transaction request = requests.get(index);
+
+            if (MainApp.getSettlementEngine().accept(this.app.getUser().getAccount(), request)) {
+                this.app.setStatus("Success! You're paying " + request.getRecipientUsername() + "'s request!");
+            } else {
+                this.app.setStatus("We're busy right now, the request will stay pending.");
+            }
+
+            cl.show(this.app.getContainer(), Pages.MENU.name());
+        }
+    }
+}
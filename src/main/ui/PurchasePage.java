@@ -2,8 +2,8 @@ package ui;
 
 import model.Account;
 import model.BusinessUser;
+import model.IdGenerator;
 import model.Transaction;
-import model.User;
 
 import javax.swing.*;
 import java.awt.*;
@@ -18,6 +18,7 @@ public class PurchasePage extends JPanel implements ActionListener, Page {
     JButton confirmButton = new JButton("Confirm Purchase");
     TextField sendAmount;
     TextField recipientUsername;
+    String idempotencyKey;     // new each time the page is shown, so a double-click confirms only once
     ImageIcon money;
 
     //MODIFY: this
@@ -46,6 +47,7 @@ public class PurchasePage extends JPanel implements ActionListener, Page {
     //EFFECTS: creates page that displays credit cards and allows user to input what amount they want to purchase
     @Override
     public void createPage() {
+        idempotencyKey = IdGenerator.newId();
         money = this.app.getEmoji("bag", 50, 50);
         new PageTitle(this, "Make Purchase", money);
 
@@ -74,37 +76,55 @@ public class PurchasePage extends JPanel implements ActionListener, Page {
         add(new ReturnToMenuButton(app.getContainer()));
     }
 
-    // EFFECTS: action listener that listens to confirm button click, checks balance and redirects to main menu
+    // EFFECTS: action listener that listens to confirm button click, checks balance and redirects to main menu once
+    // the purchase was made
     @Override
     public void actionPerformed(ActionEvent e) {
-        CardLayout cl = (CardLayout) (this.app.getContainer().getLayout());
         if (e.getSource() == confirmButton) {
             checkBalance();
-            cl.show(this.app.getContainer(), Pages.MENU.name());
         }
     }
 
     //MODIFY: app user balance
-    //EFFECTS: checks if user has enough funds to make purchase, decrements balance if true, error message if false
+    //EFFECTS: looks up the business in the account directory and makes the purchase if user has enough funds,
+    //         off the event thread, error message if the business is unknown or funds are insufficient. The menu
+    //         is shown once the transaction is done, so it shows the balance after it
     public void checkBalance() {
-        User recipientUser = new BusinessUser(recipientUsername.getText(), "Seattle", "Amazon",
-                BusinessUser.BusinessType.RETAILER);
         int sendAmtData = Integer.valueOf(sendAmount.getText());
-        int currentBalance = (int) this.app.getUser().getAccount().getBalance();
-        Account recipientAccount = new Account(recipientUser, 5000);
+        Account recipientAccount = MainApp.getAccountDirectory().findByUsername(recipientUsername.getText());
         Account senderAccount = this.app.getUser().getAccount();
 
-        if (currentBalance >= sendAmtData) {
-            this.app.setStatus("Congrats! Your purchase went through!");
-            Transaction newTransaction = new Transaction(recipientAccount, senderAccount, sendAmtData,
-                    Transaction.Type.EXCHANGE, Transaction.Status.PENDING);
-            System.out.println(newTransaction);
-            System.out.println(newTransaction.getStatus());
-            System.out.println(newTransaction.getAmount());
-            this.app.getUser().getAccount().addToTransactions(newTransaction);
-
-        } else {
-            this.app.setStatus("Oops...looks like you don't have enough funds");
+        if (recipientAccount == null || !(recipientAccount.getUser() instanceof BusinessUser)) {
+            this.app.setStatus("Oops...we couldn't find a business called " + recipientUsername.getText());
+            showMenu();
+            return;
         }
+
+        String successMessage = "Congrats! Your purchase went through!";
+        MainApp.getTransactionService().makePurchase(senderAccount, recipientAccount, sendAmtData, idempotencyKey)
+                .whenComplete((transaction, error) -> showResult(transaction, error, successMessage));
+    }
+
+    //MODIFY: this
+    //EFFECTS: on the event thread, shows success message if transaction completed, insufficient funds message if
+    //         it failed and an error message if it could not be made, then shows the menu with the new balance
+    private void showResult(Transaction transaction, Throwable error, String successMessage) {
+        SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                this.app.setStatus("Oops...something went wrong, please try again");
+            } else if (transaction.getStatus() == Transaction.Status.COMPLETE) {
+                this.app.setStatus(successMessage);
+            } else {
+                this.app.setStatus("Oops...looks like you don't have enough funds");
+            }
+            showMenu();
+        });
+    }
+
+    //MODIFY: this
+    //EFFECTS: shows the menu, which reads the balance again as it is shown
+    private void showMenu() {
+        CardLayout cl = (CardLayout) (this.app.getContainer().getLayout());
+        cl.show(this.app.getContainer(), Pages.MENU.name());
     }
 }
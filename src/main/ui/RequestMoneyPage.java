@@ -1,9 +1,6 @@
 package ui;
 
 import model.Account;
-import model.BusinessUser;
-import model.Transaction;
-import model.User;
 
 import javax.swing.*;
 import java.awt.*;
@@ -78,18 +75,19 @@ public class RequestMoneyPage extends JPanel implements ActionListener, Page {
     @Override
     public void actionPerformed(ActionEvent e) {
         CardLayout cl = (CardLayout) (this.app.getContainer().getLayout());
-        User recipientUser = new BusinessUser(recipientUsername.getText(), "Seattle", "Amazon",
-                BusinessUser.BusinessType.RETAILER);
-
-        Account senderAccount = this.app.getUser().getAccount();
-        int requestAmtData = Integer.valueOf(requestAmount.getText());
-        Account recipientAccount = new Account(recipientUser, 5000);
 
         if (e.getSource() == confirmButton) {
-            Transaction newTransaction = new Transaction(recipientAccount, senderAccount, requestAmtData,
-                    Transaction.Type.REQUEST, Transaction.Status.PENDING);
-            this.app.getUser().getAccount().addToTransactions(newTransaction);
-            this.app.setStatus("Success! Your request went through!");
+            Account requesterAccount = this.app.getUser().getAccount();
+            int requestAmtData = Integer.valueOf(requestAmount.getText());
+            Account payerAccount = MainApp.getAccountDirectory().findByUsername(recipientUsername.getText());
+
+            if (payerAccount == null) {
+                this.app.setStatus("Oops...we couldn't find a user called " + recipientUsername.getText());
+            } else {
+                requesterAccount.requestMoney(payerAccount, requestAmtData);
+                this.app.setStatus("Success! Your request was sent, it will be paid once "
+                        + recipientUsername.getText() + " accepts it.");
+            }
 
             cl.show(this.app.getContainer(), Pages.MENU.name());
         }
@@ -1,9 +1,8 @@
 package ui;
 
 import model.Account;
-import model.BusinessUser;
+import model.IdGenerator;
 import model.Transaction;
-import model.User;
 
 import javax.swing.*;
 import java.awt.*;
@@ -17,6 +16,7 @@ public class SendMoneyPage extends JPanel implements ActionListener, Page {
     MainApp app;
     JButton confirmButton = new JButton("Confirm Send");
     TextField recipientUsername;
+    String idempotencyKey;     // new each time the page is shown, so a double-click confirms only once
     TextField sendAmount;
 
     //Effects: constructor that create page & adds component & action listener to update and revalidate page
@@ -44,6 +44,7 @@ public class SendMoneyPage extends JPanel implements ActionListener, Page {
     //EFFECTS: creates page that allows user to input what amount they want to send
     @Override
     public void createPage() {
+        idempotencyKey = IdGenerator.newId();
         ImageIcon send = this.app.getEmoji("send", 50, 50);
         new PageTitle(this, "Send Money", send);
 
@@ -73,36 +74,55 @@ public class SendMoneyPage extends JPanel implements ActionListener, Page {
     }
 
 
-    // EFFECTS: action listener that listens to confirm button click, checks balance & redirects to main menu
+    // EFFECTS: action listener that listens to confirm button click, checks balance & redirects to main menu once
+    // the money was sent
     @Override
     public void actionPerformed(ActionEvent e) {
-        CardLayout cl = (CardLayout) (this.app.getContainer().getLayout());
-
         if (e.getSource() == confirmButton) {
             checkBalance();
-            cl.show(this.app.getContainer(), Pages.MENU.name());
         }
     }
 
     //MODIFY: app user balance
-    //EFFECTS: checks if user has enough funds to send money, decrements balance if true, error message if false
+    //EFFECTS: looks up the recipient in the account directory and sends the money if user has enough funds,
+    //         off the event thread, error message if the recipient is unknown or funds are insufficient. The menu
+    //         is shown once the transaction is done, so it shows the balance after it
     public void checkBalance() {
         int sendAmtData = Integer.valueOf(sendAmount.getText());
-        int currentBalance = (int) this.app.getUser().getAccount().getBalance();
-        User recipientUser = new BusinessUser(recipientUsername.getText(), "Seattle", "Amazon",
-                BusinessUser.BusinessType.RETAILER);
-
-        Account recipientAccount = new Account(recipientUser, 5000);
+        Account recipientAccount = MainApp.getAccountDirectory().findByUsername(recipientUsername.getText());
         Account senderAccount = this.app.getUser().getAccount();
 
-        if (currentBalance - sendAmtData >= 0) {
-            this.app.setStatus("Congrats! $" + sendAmtData + " was sent to " + recipientUsername.getText());
-
-            Transaction newTransaction = new Transaction(recipientAccount, senderAccount, sendAmtData,
-                    Transaction.Type.EXCHANGE, Transaction.Status.PENDING);
-            this.app.getUser().getAccount().addToTransactions(newTransaction);
-        } else {
-            this.app.setStatus("Oops...looks like you don't have enough funds");
+        if (recipientAccount == null) {
+            this.app.setStatus("Oops...we couldn't find a user called " + recipientUsername.getText());
+            showMenu();
+            return;
         }
+
+        String successMessage = "Congrats! $" + sendAmtData + " was sent to " + recipientUsername.getText();
+        MainApp.getTransactionService().sendMoney(senderAccount, recipientAccount, sendAmtData, idempotencyKey)
+                .whenComplete((transaction, error) -> showResult(transaction, error, successMessage));
+    }
+
+    //MODIFY: this
+    //EFFECTS: on the event thread, shows success message if transaction completed, insufficient funds message if
+    //         it failed and an error message if it could not be made, then shows the menu with the new balance
+    private void showResult(Transaction transaction, Throwable error, String successMessage) {
+        SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                this.app.setStatus("Oops...something went wrong, please try again");
+            } else if (transaction.getStatus() == Transaction.Status.COMPLETE) {
+                this.app.setStatus(successMessage);
+            } else {
+                this.app.setStatus("Oops...looks like you don't have enough funds");
+            }
+            showMenu();
+        });
+    }
+
+    //MODIFY: this
+    //EFFECTS: shows the menu, which reads the balance again as it is shown
+    private void showMenu() {
+        CardLayout cl = (CardLayout) (this.app.getContainer().getLayout());
+        cl.show(this.app.getContainer(), Pages.MENU.name());
     }
 }
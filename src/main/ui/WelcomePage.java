@@ -105,8 +105,11 @@ public class WelcomePage extends JPanel implements ActionListener, Page {
                 ImageIcon tada = this.app.getEmoji("party", 25, 25);
                 Account account = jsonAccountReader.read();
 
-                this.app.setUser(account.getUser());
-                this.app.getUser().setAccount(account);
+                account.getUser().setAccount(account);
+                if (!this.app.setUser(account.getUser())) {
+                    this.app.setStatus("Oops! " + account.getUser().getUsername() + " is already taken!");
+                    return;
+                }
 
                 this.app.setStatus(" Welcome back " + account.getUser().getUsername() + "!  ", tada);
 
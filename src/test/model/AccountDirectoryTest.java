@@ -0,0 +1,86 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountDirectoryTest {
+    private AccountDirectory testDirectory;
+    private Account testPersonalAccount;
+    private Account testBusinessAccount;
+
+    @BeforeEach
+    void setUp() {
+        testDirectory = new AccountDirectory();
+        User testUser = new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao");
+        User testBusinessUser = new BusinessUser(
+                "$amazon", "Seattle", "Amazon", BusinessUser.BusinessType.RETAILER);
+        testPersonalAccount = new Account(testUser, 100);
+        testBusinessAccount = new Account(testBusinessUser, 5000);
+    }
+
+    @Test
+    void testRegisterAndFind() {
+        assertTrue(testDirectory.register(testPersonalAccount));
+        assertTrue(testDirectory.register(testBusinessAccount));
+        assertEquals(2, testDirectory.size());
+
+        assertEquals(testBusinessAccount, testDirectory.findByUsername("$amazon"));
+        assertEquals(testBusinessAccount, testDirectory.findByUsername("Amazon"));
+        assertEquals(testPersonalAccount, testDirectory.findByUserId(testPersonalAccount.getUser().getId()));
+        assertEquals(testPersonalAccount, testDirectory.findById(testPersonalAccount.getId()));
+        assertNull(testDirectory.findByUsername("$nobody"));
+        assertNull(testDirectory.findById("nope"));
+    }
+
+    @Test
+    void testRegisterTakenUsername() {
+        User impostor = new PersonalUser("AMAZON", "Toronto", "Bob", "Marley");
+        Account impostorAccount = new Account(impostor, 0);
+
+        assertTrue(testDirectory.register(testBusinessAccount));
+        assertTrue(testDirectory.register(testBusinessAccount));
+        assertFalse(testDirectory.register(impostorAccount));
+
+        assertEquals(1, testDirectory.size());
+        assertEquals(testBusinessAccount, testDirectory.findByUsername("amazon"));
+        assertNull(testDirectory.findById(impostorAccount.getId()));
+    }
+
+    @Test
+    void testRegisterReloadedCopyReplacesIt() {
+        testDirectory.register(testPersonalAccount);
+        User reloadedUser = new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao");
+        reloadedUser.setId(testPersonalAccount.getUser().getId());
+        Account reloaded = new Account(reloadedUser, 100);
+        reloaded.setId(testPersonalAccount.getId());
+
+        assertTrue(testDirectory.register(reloaded));
+        assertEquals(1, testDirectory.size());
+        assertSame(reloaded, testDirectory.findByUsername("$alicelovescake"));
+        assertSame(reloaded, testDirectory.findById(testPersonalAccount.getId()));
+        assertSame(reloaded, testDirectory.findByUserId(reloadedUser.getId()));
+    }
+
+    @Test
+    void testRemove() {
+        testDirectory.register(testPersonalAccount);
+        assertTrue(testDirectory.remove(testPersonalAccount));
+        assertFalse(testDirectory.remove(testPersonalAccount));
+
+        assertEquals(0, testDirectory.size());
+        assertNull(testDirectory.findByUsername("$alicelovescake"));
+        assertNull(testDirectory.findByUserId(testPersonalAccount.getUser().getId()));
+    }
+
+    @Test
+    void testSendToResolvedAccount() {
+        testDirectory.register(testBusinessAccount);
+        Account recipient = testDirectory.findByUsername("$amazon");
+        testPersonalAccount.sendMoney(recipient, 50);
+
+        assertEquals(5050.0, testBusinessAccount.getBalance());
+        assertEquals(1, testBusinessAccount.getCompletedTransactions().size());
+    }
+}
@@ -7,6 +7,10 @@ import model.exceptions.InvalidCardException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class AccountTest {
@@ -347,5 +351,285 @@ class AccountTest {
         testAccountA.makePurchase(testBusinessAccount, 999);
         assertEquals(101.5, testAccountA.getBalance());
     }
-}
 
+    @Test
+    void testTryDebit() {
+        assertTrue(testAccountA.tryDebit(5000));
+        assertEquals(50.50, testAccountA.getBalance());
+        assertFalse(testAccountA.tryDebit(5051));
+        assertEquals(50.50, testAccountA.getBalance());
+        assertTrue(testAccountA.tryDebit(5050));
+        assertEquals(0, testAccountA.getBalanceCents());
+    }
+
+    @Test
+    void testConcurrentDebitsNeverGoNegative() throws InterruptedException {
+        Account account = new Account(testUserA, 50);
+        AtomicInteger successfulDebits = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (account.tryDebit(1)) {
+                        successfulDebits.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        runAll(threads);
+
+        assertEquals(5000, successfulDebits.get());
+        assertEquals(0, account.getBalanceCents());
+    }
+
+    @Test
+    void testConcurrentCreditsAreNotLost() throws InterruptedException {
+        Account account = new Account(testUserA, 0);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    account.receiveMoney(0.01);
+                }
+            }));
+        }
+        runAll(threads);
+
+        assertEquals(80.0, account.getBalance());
+    }
+
+    @Test
+    void testTransferTo() {
+        assertTrue(testAccountA.transferTo(testAccountB, 5050));
+        assertEquals(50.0, testAccountA.getBalance());
+        assertEquals(150.50, testAccountB.getBalance());
+
+        assertFalse(testAccountA.transferTo(testAccountB, 5001));
+        assertEquals(50.0, testAccountA.getBalance());
+        assertEquals(150.50, testAccountB.getBalance());
+
+        assertTrue(testAccountA.transferTo(testAccountA, 5000));
+        assertEquals(50.0, testAccountA.getBalance());
+    }
+
+    @Test
+    void testOpposingTransfersDoNotDeadlockOrLoseMoney() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    testAccountA.transferTo(testAccountB, 7);
+                }
+            }));
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    testAccountB.transferTo(testAccountA, 5);
+                }
+            }));
+        }
+        runAll(threads);
+
+        assertEquals(20050, testAccountA.getBalanceCents() + testAccountB.getBalanceCents());
+        assertTrue(testAccountA.getBalanceCents() >= 0);
+        assertTrue(testAccountB.getBalanceCents() >= 0);
+    }
+
+    @Test
+    void testAccountsHaveTheirOwnIds() {
+        assertNotEquals(testAccountA.getId(), testAccountB.getId());
+    }
+
+    @Test
+    void testEnableBalanceStriping() {
+        assertFalse(testAccountA.enableBalanceStriping());
+        assertFalse(testAccountA.isBalanceStriped());
+
+        assertTrue(testBusinessAccount.enableBalanceStriping());
+        assertTrue(testBusinessAccount.isBalanceStriped());
+        testAccountA.makePurchase(testBusinessAccount, 50);
+        assertEquals(5050.0, testBusinessAccount.getBalance());
+    }
+
+    @Test
+    void testStripedBalanceDebitsIncludeUnfoldedCredits() {
+        testBusinessAccount.enableBalanceStriping();
+        testBusinessAccount.incrementBalance(100);
+
+        assertTrue(testBusinessAccount.tryDebit(510000));
+        assertEquals(0, testBusinessAccount.getBalanceCents());
+        assertFalse(testBusinessAccount.tryDebit(1));
+    }
+
+    @Test
+    void testConcurrentCreditsToStripedAccount() throws InterruptedException {
+        testBusinessAccount.enableBalanceStriping();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    testBusinessAccount.incrementBalanceCents(1);
+                }
+            }));
+        }
+        runAll(threads);
+
+        assertEquals(5080.0, testBusinessAccount.getBalance());
+    }
+
+    @Test
+    void testConcurrentCreditsAndDebitsOfStripedAccount() throws InterruptedException {
+        Account merchant = new Account(
+                new BusinessUser("$tims", "Toronto", "Tim Hortons", BusinessUser.BusinessType.CAFE), 0);
+        merchant.enableBalanceStriping();
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 20000; j++) {
+                    merchant.incrementBalanceCents(1);
+                    if (!merchant.tryDebit(1)) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        runAll(threads);
+
+        assertEquals(0, failures.get());
+        assertEquals(0, merchant.getBalanceCents());
+    }
+
+    @Test
+    void testStatusBucketsFollowStatusChanges() {
+        Transaction request = testAccountA.requestMoney(testAccountB, 20);
+        List<Transaction> pending = testAccountA.getPendingTransactions();
+        assertEquals(1, testAccountA.getTransactionCount(Transaction.Status.PENDING));
+        assertTrue(pending.contains(request));
+
+        request.completeTransaction();
+
+        assertEquals(0, testAccountA.getTransactionCount(Transaction.Status.PENDING));
+        assertEquals(1, testAccountA.getTransactionCount(Transaction.Status.COMPLETE));
+        assertEquals(1, testAccountB.getTransactionCount(Transaction.Status.COMPLETE));
+        assertTrue(pending.contains(request));
+        assertTrue(testAccountA.getPendingTransactions().isEmpty());
+        assertTrue(testAccountA.getCompletedTransactions().contains(request));
+        assertEquals(120.50, testAccountA.getBalance());
+    }
+
+    @Test
+    void testStatusBucketsAreSnapshots() {
+        Transaction transaction = testAccountA.sendMoney(testAccountB, 10);
+        List<Transaction> completed = testAccountA.getCompletedTransactions();
+        completed.remove(transaction);
+        testAccountA.sendMoney(testAccountB, 10);
+
+        assertTrue(completed.isEmpty());
+        assertEquals(2, testAccountA.getCompletedTransactions().size());
+    }
+
+    @Test
+    void testForEachTransactionWithStatus() {
+        Transaction sent = testAccountA.sendMoney(testAccountB, 10);
+        Transaction request = testAccountA.requestMoney(testAccountB, 5);
+        List<Transaction> completed = new ArrayList<>();
+        List<Transaction> pending = new ArrayList<>();
+
+        testAccountA.forEachTransaction(Transaction.Status.COMPLETE, completed::add);
+        testAccountA.forEachTransaction(Transaction.Status.PENDING, pending::add);
+
+        assertEquals(List.of(sent), completed);
+        assertEquals(List.of(request), pending);
+        testAccountA.forEachTransaction(Transaction.Status.FAILED, t -> fail("No transaction failed"));
+    }
+
+    @Test
+    void testSnapshotTransactionsKeepsStatusAtSnapshot() {
+        checkSnapshotKeepsStatus(testAccountA);
+        testAccountB.useColumnarHistory();
+        checkSnapshotKeepsStatus(testAccountB);
+    }
+
+    private void checkSnapshotKeepsStatus(Account requester) {
+        Transaction request = requester.requestMoney(testBusinessAccount, 5);
+        List<Transaction> snapshot = requester.snapshotTransactions();
+
+        request.completeTransaction();
+
+        Transaction taken = snapshot.get(snapshot.size() - 1);
+        assertEquals(request.getId(), taken.getId());
+        assertEquals(Transaction.Status.PENDING, taken.getStatus());
+        assertEquals(Transaction.Status.COMPLETE, requester.snapshotTransactions().get(snapshot.size() - 1)
+                .getStatus());
+    }
+
+    @Test
+    void testSendMoneyBatch() {
+        List<Transfer> payroll = new ArrayList<>();
+        payroll.add(new Transfer(testAccountB, 30));
+        payroll.add(new Transfer(testBusinessAccount, 20.25));
+        payroll.add(new Transfer(testAccountB, 10));
+
+        try {
+            List<Transaction> sent = testAccountA.sendMoneyBatch(payroll);
+            assertEquals(3, sent.size());
+            assertEquals(testBusinessAccount, sent.get(1).getRecipientAccount());
+            assertEquals(Transaction.Status.COMPLETE, sent.get(2).getStatus());
+        } catch (InsufficientFundsException e) {
+            fail("Should not have caught insufficient funds exception");
+        }
+
+        assertEquals(40.25, testAccountA.getBalance());
+        assertEquals(140.0, testAccountB.getBalance());
+        assertEquals(5020.25, testBusinessAccount.getBalance());
+        assertEquals(3, testAccountA.getCompletedTransactions().size());
+        assertEquals(2, testAccountB.getCompletedTransactions().size());
+    }
+
+    @Test
+    void testSendMoneyBatchInsufficientFundsChangesNothing() {
+        List<Transfer> refunds = new ArrayList<>();
+        refunds.add(new Transfer(testAccountB, 100));
+        refunds.add(new Transfer(testBusinessAccount, 0.51));
+
+        try {
+            testAccountA.sendMoneyBatch(refunds);
+            fail("Should have caught insufficient funds exception");
+        } catch (InsufficientFundsException e) {
+            // pass
+        }
+
+        assertEquals(100.50, testAccountA.getBalance());
+        assertEquals(100.0, testAccountB.getBalance());
+        assertEquals(0, testAccountA.getCompletedTransactions().size());
+        assertEquals(0, testAccountB.getCompletedTransactions().size());
+    }
+
+    @Test
+    void testSendMoneyBatchInvalidTransferChangesNothing() {
+        List<Transfer> negative = new ArrayList<>();
+        negative.add(new Transfer(testAccountB, 30));
+        negative.add(new Transfer(testBusinessAccount, -20));
+        List<Transfer> noRecipient = new ArrayList<>();
+        noRecipient.add(new Transfer(testAccountB, 30));
+        noRecipient.add(new Transfer(null, 20));
+
+        assertThrows(IllegalArgumentException.class, () -> testAccountA.sendMoneyBatch(negative));
+        assertThrows(IllegalArgumentException.class, () -> testAccountA.sendMoneyBatch(noRecipient));
+
+        assertEquals(100.50, testAccountA.getBalance());
+        assertEquals(100.0, testAccountB.getBalance());
+        assertEquals(5000.0, testBusinessAccount.getBalance());
+        assertEquals(0, testAccountB.getCompletedTransactions().size());
+    }
+
+    private void runAll(List<Thread> threads) throws InterruptedException {
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join(10000);
+            assertFalse(t.isAlive(), "thread did not finish");
+        }
+    }
+}
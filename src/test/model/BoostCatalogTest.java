@@ -0,0 +1,130 @@
+package model;
+
+import model.boosts.BoostCatalog;
+import model.boosts.BoostRule;
+import model.boosts.HighRollerBoost;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoostCatalogTest {
+    private BoostCatalog testCatalog;
+    private Account testBuyerAccount;
+    private Account testCafeAccount;
+    private Account testRetailAccount;
+
+    @BeforeEach
+    void setUp() {
+        testCatalog = new BoostCatalog();
+        testBuyerAccount = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 2000);
+        testCafeAccount = new Account(
+                new BusinessUser("$starbucks", "Seattle", "Starbucks", BusinessUser.BusinessType.CAFE), 0);
+        testRetailAccount = new Account(
+                new BusinessUser("$amazon", "Vancouver", "Amazon", BusinessUser.BusinessType.RETAILER), 0);
+    }
+
+    @Test
+    void testRulePredicates() {
+        BoostRule rule = new BoostRule("seattle coffee", 4).forBusinessTypes(BusinessUser.BusinessType.CAFE)
+                .inLocation("SEATTLE").withMinimumAmount(5)
+                .between(LocalDate.now().minusDays(1), LocalDate.now().plusDays(1));
+        BoostRule expired = new BoostRule("last year", 4).between(null, LocalDate.now().minusYears(1));
+
+        assertTrue(rule.matches(purchase(testCafeAccount, 5)));
+        assertFalse(rule.matches(purchase(testCafeAccount, 4.99)));
+        assertFalse(rule.matches(purchase(testRetailAccount, 5)));
+        assertFalse(expired.matches(purchase(testCafeAccount, 5)));
+    }
+
+    @Test
+    void testMatchingRules() {
+        BoostRule anything = new BoostRule("anything", 1);
+        BoostRule cafes = new BoostRule("cafes", 2).forBusinessTypes(BusinessUser.BusinessType.CAFE);
+        BoostRule vancouver = new BoostRule("vancouver", 3).inLocation("Vancouver");
+        BoostRule bigSpender = new BoostRule("big spender", 4).withMinimumAmount(100);
+        testCatalog.add(anything);
+        testCatalog.add(cafes);
+        testCatalog.add(vancouver);
+        testCatalog.add(bigSpender);
+
+        List<BoostRule> cafeRules = testCatalog.matchingRules(purchase(testCafeAccount, 10));
+        assertEquals(2, cafeRules.size());
+        assertTrue(cafeRules.contains(anything));
+        assertTrue(cafeRules.contains(cafes));
+        assertEquals(8, testCatalog.percentFor(purchase(testRetailAccount, 100)));
+
+        assertTrue(testCatalog.remove(cafes));
+        assertFalse(testCatalog.remove(cafes));
+        assertEquals(1, testCatalog.percentFor(purchase(testCafeAccount, 10)));
+        assertEquals(3, testCatalog.size());
+    }
+
+    @Test
+    void testPercentIsCapped() {
+        assertThrows(IllegalArgumentException.class, () -> new BoostRule("nothing", 0));
+        assertThrows(IllegalArgumentException.class, () -> new BoostRule("too much", 101));
+        for (int i = 0; i < 3; i++) {
+            testCatalog.add(new BoostRule("generous " + i, 60));
+        }
+        testBuyerAccount.useBoostCatalog(testCatalog);
+        testBuyerAccount.addBoost(new HighRollerBoost());
+
+        assertEquals(100, testCatalog.percentFor(purchase(testCafeAccount, 100)));
+        testBuyerAccount.makePurchase(testCafeAccount, 1500);
+        assertEquals(2000.0, testBuyerAccount.getBalance());
+    }
+
+    @Test
+    void testLocationIgnoresCaseAndSpaces() {
+        BoostRule seattle = new BoostRule("seattle", 2).inLocation("  seattle ");
+        testCatalog.add(seattle);
+        Account spacedCafeAccount = new Account(
+                new BusinessUser("$tims", " SEATTLE  ", "Tim Hortons", BusinessUser.BusinessType.CAFE), 0);
+
+        assertTrue(seattle.matches(purchase(testCafeAccount, 10)));
+        assertTrue(seattle.matches(purchase(spacedCafeAccount, 10)));
+        assertEquals(List.of(seattle), testCatalog.matchingRules(purchase(testCafeAccount, 10)));
+        assertEquals(List.of(seattle), testCatalog.matchingRules(purchase(spacedCafeAccount, 10)));
+        assertEquals(0, testCatalog.percentFor(purchase(testRetailAccount, 10)));
+    }
+
+    @Test
+    void testCandidatesStayFlatAsCatalogGrows() {
+        String[] cities = {"Vancouver", "Seattle", "Toronto", "Montreal", "Calgary"};
+        BusinessUser.BusinessType[] types = BusinessUser.BusinessType.values();
+        for (int i = 0; i < 500; i++) {
+            testCatalog.add(new BoostRule("rule " + i, 1).inLocation(cities[i % cities.length] + (i / 25))
+                    .forBusinessTypes(types[i % types.length]));
+        }
+        int before = testCatalog.candidateCount(testCafeAccount.getUser(), Money.toCents(10));
+
+        for (int i = 500; i < 5000; i++) {
+            testCatalog.add(new BoostRule("rule " + i, 1).inLocation("City" + i).withMinimumAmount(i));
+        }
+
+        assertEquals(5000, testCatalog.size());
+        assertEquals(before, testCatalog.candidateCount(testCafeAccount.getUser(), Money.toCents(10)));
+        assertTrue(before < 10);
+    }
+
+    @Test
+    void testPurchaseAddsCatalogCashBack() {
+        testCatalog.add(new BoostRule("retail", 5).forBusinessTypes(BusinessUser.BusinessType.RETAILER));
+        testBuyerAccount.useBoostCatalog(testCatalog);
+        testBuyerAccount.addBoost(new HighRollerBoost());
+
+        testBuyerAccount.makePurchase(testRetailAccount, 1000);
+
+        assertSame(testCatalog, testBuyerAccount.getBoostCatalog());
+        assertEquals(1150.0, testBuyerAccount.getBalance());
+    }
+
+    private Transaction purchase(Account company, double amount) {
+        return new Transaction(company, testBuyerAccount, amount, Transaction.Type.EXCHANGE,
+                Transaction.Status.FAILED);
+    }
+}
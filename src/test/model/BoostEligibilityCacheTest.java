@@ -0,0 +1,63 @@
+package model;
+
+import model.boosts.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoostEligibilityCacheTest {
+    private BusinessUser testCafeUser;
+    private Account testCafeAccount;
+    private Account testPersonalAccount;
+
+    @BeforeEach
+    void setUp() {
+        testCafeUser = new BusinessUser("$starbucks", "Seattle", "Starbucks", BusinessUser.BusinessType.CAFE);
+        testCafeAccount = new Account(testCafeUser, 0);
+        testPersonalAccount = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 100);
+    }
+
+    @Test
+    void testEligibility() {
+        int alwaysEligible = BoostEligibilityCache.bitOf(BoostType.HIGHROLLER)
+                | BoostEligibilityCache.bitOf(BoostType.CUSTOM);
+
+        assertEquals(alwaysEligible | BoostEligibilityCache.bitOf(BoostType.FOODIE),
+                BoostEligibilityCache.eligibilityOf(testCafeAccount));
+        assertEquals(alwaysEligible, BoostEligibilityCache.eligibilityOf(testPersonalAccount));
+    }
+
+    @Test
+    void testMaskOf() {
+        assertEquals(0, BoostEligibilityCache.maskOf(Arrays.asList()));
+        assertEquals(BoostEligibilityCache.bitOf(BoostType.SHOPAHOLIC) | BoostEligibilityCache.bitOf(BoostType.FOODIE),
+                BoostEligibilityCache.maskOf(Arrays.asList(new ShopaholicBoost(), new FoodieBoost())));
+    }
+
+    @Test
+    void testBusinessTypeChange() {
+        int foodie = BoostEligibilityCache.bitOf(BoostType.FOODIE);
+        int shopaholic = BoostEligibilityCache.bitOf(BoostType.SHOPAHOLIC);
+        assertEquals(foodie, BoostEligibilityCache.eligibilityOf(testCafeAccount) & (foodie | shopaholic));
+
+        testCafeUser.setBusinessType(BusinessUser.BusinessType.RETAILER);
+
+        assertEquals(shopaholic, BoostEligibilityCache.eligibilityOf(testCafeAccount) & (foodie | shopaholic));
+    }
+
+    @Test
+    void testBusinessTypeChangeReachesPurchases() {
+        testPersonalAccount.addBoost(new ShopaholicBoost());
+        testPersonalAccount.makePurchase(testCafeAccount, 20);
+        assertEquals(80.0, testPersonalAccount.getBalance());
+
+        testCafeUser.setBusinessType(BusinessUser.BusinessType.RETAILER);
+        testPersonalAccount.makePurchase(testCafeAccount, 20);
+
+        assertEquals(BusinessUser.BusinessType.RETAILER, testCafeUser.getBusinessType());
+        assertEquals(61.0, testPersonalAccount.getBalance());
+    }
+}
@@ -0,0 +1,79 @@
+package model;
+
+import model.boosts.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoostEngineTest {
+    private User testPersonalUser;
+    private BusinessUser testRetailUser;
+    private BusinessUser testCafeUser;
+    private BusinessUser testGroceryUser;
+
+    @BeforeEach
+    void setUp() {
+        testPersonalUser = new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao");
+        testRetailUser = new BusinessUser("$amazon", "Seattle", "Amazon", BusinessUser.BusinessType.RETAILER);
+        testCafeUser = new BusinessUser("$starbucks", "Seattle", "Starbucks", BusinessUser.BusinessType.CAFE);
+        testGroceryUser = new BusinessUser("$safeway", "Seattle", "Safeway", BusinessUser.BusinessType.GROCERY);
+    }
+
+    @Test
+    void testEmptyEngine() {
+        assertEquals(0, BoostEngine.EMPTY.percentFor(testRetailUser, Money.toCents(5000)));
+        assertEquals(0, BoostEngine.EMPTY.percentFor(testPersonalUser, 0));
+    }
+
+    @Test
+    void testPercentsByTypeAndThreshold() {
+        BoostEngine engine = new BoostEngine(Arrays.asList(new HighRollerBoost(), new ShopaholicBoost()));
+
+        assertEquals(5, engine.percentFor(testRetailUser, Money.toCents(999.99)));
+        assertEquals(15, engine.percentFor(testRetailUser, Money.toCents(1000)));
+        assertEquals(0, engine.percentFor(testCafeUser, Money.toCents(999.99)));
+        assertEquals(10, engine.percentFor(testCafeUser, Money.toCents(1000)));
+        assertEquals(10, engine.percentFor(testPersonalUser, Money.toCents(2000)));
+        assertEquals(0, engine.percentFor(testPersonalUser, 0));
+    }
+
+    @Test
+    void testFoodieCoversCafeOnly() {
+        BoostEngine engine = new BoostEngine(Collections.singleton(new FoodieBoost()));
+
+        assertEquals(3, engine.percentFor(testCafeUser, 100));
+        assertEquals(0, engine.percentFor(testGroceryUser, 100));
+        assertEquals(0, engine.percentFor(testPersonalUser, 100));
+    }
+
+    @Test
+    void testPurchaseCreditsCombinedCashBack() {
+        Account buyer = new Account(testPersonalUser, 2000);
+        Account retailer = new Account(testRetailUser, 0);
+        buyer.addBoost(new HighRollerBoost());
+        buyer.addBoost(new ShopaholicBoost());
+
+        buyer.makePurchase(retailer, 1000);
+
+        assertEquals(1150.0, buyer.getBalance());
+        assertEquals(1000.0, retailer.getBalance());
+    }
+
+    @Test
+    void testRemovedBoostStopsApplying() {
+        Account buyer = new Account(testPersonalUser, 100);
+        Account cafe = new Account(testCafeUser, 0);
+        Boost foodie = new FoodieBoost();
+        buyer.addBoost(foodie);
+        buyer.makePurchase(cafe, 50);
+        assertEquals(51.5, buyer.getBalance());
+
+        buyer.removeBoost(foodie);
+        buyer.makePurchase(cafe, 50);
+        assertEquals(1.5, buyer.getBalance());
+    }
+}
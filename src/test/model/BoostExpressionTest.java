@@ -0,0 +1,113 @@
+package model;
+
+import model.boosts.*;
+import model.exceptions.InvalidBoostExpressionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoostExpressionTest {
+    private Account testBuyerAccount;
+    private Account testCafeAccount;
+    private Account testRestaurantAccount;
+    private Account testRetailAccount;
+
+    @BeforeEach
+    void setUp() {
+        testBuyerAccount = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 0);
+        testCafeAccount = new Account(
+                new BusinessUser("$starbucks", "Seattle", "Starbucks", BusinessUser.BusinessType.CAFE), 0);
+        testRestaurantAccount = new Account(
+                new BusinessUser("$indian", "Seattle", "Indian Food", BusinessUser.BusinessType.RESTAURANT), 0);
+        testRetailAccount = new Account(
+                new BusinessUser("$amazon", "Seattle", "Amazon", BusinessUser.BusinessType.RETAILER), 0);
+    }
+
+    @Test
+    void testCompile() throws InvalidBoostExpressionException {
+        CompiledBoost boost = BoostExpression.compile(" businessType in (CAFE, RESTAURANT) && amount >= 20 -> 3% ");
+
+        assertEquals("businessType in (CAFE, RESTAURANT) && amount >= 20 -> 3%", boost.getExpression());
+        assertEquals(BoostType.CUSTOM, boost.getBoostType());
+        assertEquals(3, boost.getCashBackPercent());
+        assertEquals(EnumSet.of(BusinessUser.BusinessType.CAFE, BusinessUser.BusinessType.RESTAURANT),
+                boost.getBusinessTypes());
+        assertEquals(2000, boost.getMinimumAmountCents());
+
+        assertTrue(boost.applyBoost(purchase(testCafeAccount, 20)));
+        assertTrue(boost.applyBoost(purchase(testRestaurantAccount, 100)));
+        assertFalse(boost.applyBoost(purchase(testCafeAccount, 19.99)));
+        assertFalse(boost.applyBoost(purchase(testRetailAccount, 100)));
+        assertEquals(3.6, testBuyerAccount.getBalance());
+    }
+
+    @Test
+    void testStrictAmountAndSingleType() throws InvalidBoostExpressionException {
+        CompiledBoost boost = BoostExpression.compile("amount > 10 && businessType == RETAILER -> 10%");
+
+        assertEquals(1001, boost.getMinimumAmountCents());
+        assertFalse(boost.applyBoost(purchase(testRetailAccount, 10)));
+        assertTrue(boost.applyBoost(purchase(testRetailAccount, 10.01)));
+    }
+
+    @Test
+    void testMatchesHandWrittenFoodieBoost() throws InvalidBoostExpressionException {
+        Boost compiled = BoostExpression.compile("businessType in (CAFE, RESTAURANT) -> 3%");
+        Boost foodie = new FoodieBoost();
+        Account[] merchants = {testCafeAccount, testRestaurantAccount, testRetailAccount, testBuyerAccount};
+
+        for (int i = 0; i < 1000; i++) {
+            Transaction purchase = purchase(merchants[i % merchants.length], i * 1.37);
+            assertEquals(foodie.applyBoost(purchase), compiled.applyBoost(purchase));
+        }
+        assertEquals(compiled.getBusinessTypes(), foodie.getBusinessTypes());
+    }
+
+    @Test
+    void testCompiledBoostOnAccount() throws InvalidBoostExpressionException {
+        testBuyerAccount.incrementBalance(100);
+        assertTrue(testBuyerAccount.addBoost(BoostExpression.compile("businessType == CAFE -> 4%")));
+
+        testBuyerAccount.makePurchase(testCafeAccount, 50);
+        testBuyerAccount.makePurchase(testRetailAccount, 10);
+
+        assertEquals(42.0, testBuyerAccount.getBalance());
+        assertEquals(BoostType.CUSTOM, testBuyerAccount.toJson().getJSONArray("boosts").getJSONObject(0)
+                .get("boostType"));
+    }
+
+    @Test
+    void testInvalidExpressions() {
+        String[] invalid = {"", "amount >= 20", "amount >= 20 -> 2.5%", "amount >= 20 -> 0%", "amount <= 20 -> 1%",
+                "businessType == BANK -> 1%", "location == Seattle -> 1%", "amount >= 20 -> 1% extra",
+                "businessType == CAFE && businessType == RETAILER -> 1%", "amount >= 20 -> 1# ",
+                "amount >= 20 -> 101%", "amount >= 20 -> 99999999999%"};
+        for (String expression : invalid) {
+            assertThrows(InvalidBoostExpressionException.class, () -> BoostExpression.compile(expression),
+                    expression);
+        }
+    }
+
+    @Test
+    void testMaxPercent() throws InvalidBoostExpressionException {
+        assertEquals(BoostExpression.MAX_PERCENT,
+                BoostExpression.compile("amount >= 20 -> 100%").getCashBackPercent());
+    }
+
+    @Test
+    void testEquality() throws InvalidBoostExpressionException {
+        Boost boost = BoostExpression.compile("amount >= 5 -> 1%");
+        assertEquals(boost, BoostExpression.compile("amount >= 5 -> 1%"));
+        assertEquals(boost.hashCode(), BoostExpression.compile("amount >= 5 -> 1%").hashCode());
+        assertNotEquals(boost, BoostExpression.compile("amount >= 5 -> 2%"));
+        assertNotEquals(boost, new HighRollerBoost());
+    }
+
+    private Transaction purchase(Account company, double amount) {
+        return new Transaction(company, testBuyerAccount, amount, Transaction.Type.EXCHANGE,
+                Transaction.Status.FAILED);
+    }
+}
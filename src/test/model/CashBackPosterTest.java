@@ -0,0 +1,113 @@
+package model;
+
+import model.boosts.ShopaholicBoost;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CashBackPosterTest {
+    private AccountDirectory testDirectory;
+    private CashBackPoster testPoster;
+    private Account testBuyerAccountA;
+    private Account testBuyerAccountB;
+    private Account testRetailAccount;
+
+    @BeforeEach
+    void setUp() {
+        testDirectory = new AccountDirectory();
+        testPoster = new CashBackPoster(testDirectory);
+        testBuyerAccountA = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 1000);
+        testBuyerAccountB = new Account(new PersonalUser("$moneymaker", "Toronto", "Bob", "Marley"), 1000);
+        testRetailAccount = new Account(
+                new BusinessUser("$amazon", "Seattle", "Amazon", BusinessUser.BusinessType.RETAILER), 0);
+        for (Account account : new Account[]{testBuyerAccountA, testBuyerAccountB, testRetailAccount}) {
+            account.addBoost(new ShopaholicBoost());
+            testDirectory.register(account);
+        }
+        testBuyerAccountA.enableCashBackAccrual();
+        testBuyerAccountB.enableCashBackAccrual();
+    }
+
+    @Test
+    void testCashBackAccruesUntilPosted() {
+        for (int i = 0; i < 10; i++) {
+            testBuyerAccountA.makePurchase(testRetailAccount, 20);
+        }
+
+        assertTrue(testBuyerAccountA.isCashBackAccrued());
+        assertEquals(800.0, testBuyerAccountA.getBalance());
+        assertEquals(1000, testBuyerAccountA.getAccruedCashBackCents());
+
+        assertEquals(1, testPoster.postAll());
+
+        assertEquals(810.0, testBuyerAccountA.getBalance());
+        assertEquals(0, testBuyerAccountA.getAccruedCashBackCents());
+        assertEquals(11, testBuyerAccountA.getTransactionCount(Transaction.Status.COMPLETE));
+        Transaction cashBack = testBuyerAccountA.getCompletedTransactions().get(10);
+        assertEquals(Transaction.Type.CASHBACK, cashBack.getType());
+        assertEquals(10.0, cashBack.getAmount());
+        assertEquals(1, testPoster.getPostedCount());
+        assertEquals(1000, testPoster.getPostedCents());
+    }
+
+    @Test
+    void testNothingToPost() {
+        assertEquals(0, testPoster.postAll());
+        assertNull(testRetailAccount.postAccruedCashBack());
+        assertFalse(testRetailAccount.isCashBackAccrued());
+        assertEquals(0, testRetailAccount.getAccruedCashBackCents());
+    }
+
+    @Test
+    void testAccountsWithoutAccrualAreCreditedRightAway() {
+        Account buyer = new Account(new PersonalUser("$spender", "Toronto", "Sam", "Lee"), 100);
+        buyer.addBoost(new ShopaholicBoost());
+        buyer.makePurchase(testRetailAccount, 100);
+        assertEquals(5.0, buyer.getBalance());
+    }
+
+    @Test
+    void testScheduledPosting() throws InterruptedException {
+        testBuyerAccountA.makePurchase(testRetailAccount, 100);
+        testBuyerAccountB.makePurchase(testRetailAccount, 200);
+        testPoster.start(10, TimeUnit.MILLISECONDS);
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (testPoster.getPostedCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        testPoster.shutdown();
+
+        assertEquals(2, testPoster.getPostedCount());
+        assertEquals(905.0, testBuyerAccountA.getBalance());
+        assertEquals(810.0, testBuyerAccountB.getBalance());
+    }
+
+    @Test
+    void testScheduledPostingSurvivesFailures() throws InterruptedException {
+        testBuyerAccountA.makePurchase(testRetailAccount, 100);
+        testBuyerAccountA.setEventListener((account, event) -> {
+            throw new UncheckedIOException(new IOException("disk full"));
+        });
+        testPoster.start(10, TimeUnit.MILLISECONDS);
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (testPoster.getFailedCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        testBuyerAccountB.makePurchase(testRetailAccount, 200);
+        while (testPoster.getPostedCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        testPoster.shutdown();
+
+        assertEquals(1, testPoster.getFailedCount());
+        assertEquals(1, testPoster.getPostedCount());
+        assertEquals(810.0, testBuyerAccountB.getBalance());
+    }
+}
@@ -0,0 +1,139 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarTransactionHistoryTest {
+    private Account testMerchantAccount;
+    private Account testBuyerAccountA;
+    private Account testBuyerAccountB;
+
+    @BeforeEach
+    void setUp() {
+        User testMerchant = new BusinessUser("$starbucks", "Seattle", "Starbucks", BusinessUser.BusinessType.CAFE);
+        testMerchantAccount = new Account(testMerchant, 0);
+        testMerchantAccount.useColumnarHistory();
+        testBuyerAccountA = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 100);
+        testBuyerAccountB = new Account(new PersonalUser("$moneymaker", "Toronto", "Bob", "Marley"), 100);
+    }
+
+    @Test
+    void testPurchasesAreStoredAndMaterialized() {
+        Transaction purchase = testBuyerAccountA.makePurchase(testMerchantAccount, 4.75);
+        testBuyerAccountB.makePurchase(testMerchantAccount, 500);
+
+        assertTrue(testMerchantAccount.hasColumnarHistory());
+        assertEquals(1, testMerchantAccount.getTransactionCount(Transaction.Status.COMPLETE));
+        assertEquals(1, testMerchantAccount.getTransactionCount(Transaction.Status.FAILED));
+
+        Transaction row = testMerchantAccount.getCompletedTransactions().get(0);
+        assertNotSame(purchase, row);
+        assertEquals(purchase, row);
+        assertEquals(purchase.getId(), row.getId());
+        assertEquals(4.75, row.getAmount());
+        assertEquals(purchase.getDate(), row.getDate());
+        assertEquals(Transaction.Type.EXCHANGE, row.getType());
+        assertSame(testBuyerAccountA, row.getSenderAccount());
+        assertSame(testMerchantAccount, row.getRecipientAccount());
+    }
+
+    @Test
+    void testCounterpartiesAreStoredOnce() {
+        for (int i = 0; i < 50; i++) {
+            testBuyerAccountA.makePurchase(testMerchantAccount, 1);
+            testBuyerAccountB.makePurchase(testMerchantAccount, 1);
+        }
+        ColumnarTransactionHistory history = new ColumnarTransactionHistory(testMerchantAccount);
+        for (Transaction t : testMerchantAccount.getCompletedTransactions()) {
+            history.add(t);
+        }
+
+        assertEquals(100, history.count(Transaction.Status.COMPLETE));
+        assertEquals(3, history.getCounterpartyCount());
+    }
+
+    @Test
+    void testPendingRequestChangesBucket() {
+        Transaction request = testMerchantAccount.requestMoney(testBuyerAccountA, 30);
+        List<Transaction> pending = testMerchantAccount.getPendingTransactions();
+        assertEquals(1, pending.size());
+        assertTrue(pending.contains(request));
+
+        request.completeTransaction();
+
+        assertEquals(1, pending.size());
+        assertEquals(0, testMerchantAccount.getPendingTransactions().size());
+        Transaction row = testMerchantAccount.getCompletedTransactions().get(0);
+        assertEquals(Transaction.Status.COMPLETE, row.getStatus());
+        assertEquals(30.0, testMerchantAccount.getBalance());
+    }
+
+    @Test
+    void testPendingRowIsSettledOnce() {
+        Transaction request = testMerchantAccount.requestMoney(testBuyerAccountA, 30);
+        Transaction row = testMerchantAccount.getPendingTransactions().get(0);
+        assertSame(request, row);
+
+        row.completeTransaction();
+        request.completeTransaction();
+
+        assertEquals(30.0, testMerchantAccount.getBalance());
+        assertEquals(70.0, testBuyerAccountA.getBalance());
+        assertNotSame(request, testMerchantAccount.getCompletedTransactions().get(0));
+    }
+
+    @Test
+    void testSelfRequestSettlesEveryRow() {
+        testBuyerAccountB.useColumnarHistory();
+        Transaction request = testBuyerAccountB.requestMoney(testBuyerAccountB, 5);
+        Transaction objectRequest = testBuyerAccountA.requestMoney(testBuyerAccountA, 5);
+        assertEquals(2, testBuyerAccountB.getTransactionCount(Transaction.Status.PENDING));
+
+        request.completeTransaction();
+        objectRequest.completeTransaction();
+
+        assertEquals(Transaction.Status.COMPLETE, request.getStatus());
+        assertEquals(0, testBuyerAccountB.getTransactionCount(Transaction.Status.PENDING));
+        assertEquals(2, testBuyerAccountB.getTransactionCount(Transaction.Status.COMPLETE));
+        assertEquals(testBuyerAccountA.getTransactionCount(Transaction.Status.PENDING),
+                testBuyerAccountB.getTransactionCount(Transaction.Status.PENDING));
+        assertEquals(testBuyerAccountA.getTransactionCount(Transaction.Status.COMPLETE),
+                testBuyerAccountB.getTransactionCount(Transaction.Status.COMPLETE));
+    }
+
+    @Test
+    void testRemoveAndLegacyIds() {
+        Transaction first = testBuyerAccountA.sendMoney(testMerchantAccount, 1);
+        Transaction legacy = new Transaction("0b3c1bfa-1c2c-4835-ab47-fc822475b601", testMerchantAccount,
+                testBuyerAccountA, 200, LocalDate.of(2021, 4, 10), Transaction.Status.COMPLETE,
+                Transaction.Type.EXCHANGE);
+        testMerchantAccount.addToTransactions(legacy);
+        Transaction last = testBuyerAccountA.sendMoney(testMerchantAccount, 3);
+
+        testMerchantAccount.removeFromTransactions(first);
+
+        List<Transaction> completed = testMerchantAccount.getCompletedTransactions();
+        assertEquals(2, completed.size());
+        Transaction legacyRow = completed.get(0);
+        assertEquals(legacy.getId(), legacyRow.getId());
+        assertEquals(LocalDate.of(2021, 4, 10), legacyRow.getDate());
+        assertEquals(last, completed.get(1));
+    }
+
+    @Test
+    void testSwitchingKeepsExistingTransactions() {
+        testBuyerAccountA.sendMoney(testBuyerAccountB, 10);
+        testBuyerAccountA.requestMoney(testBuyerAccountB, 5);
+
+        testBuyerAccountA.useColumnarHistory();
+
+        assertEquals(1, testBuyerAccountA.getCompletedTransactions().size());
+        assertEquals(1, testBuyerAccountA.getPendingTransactions().size());
+        assertEquals(2, testBuyerAccountA.toJson().getJSONArray("transactions").length());
+    }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdGeneratorTest {
+
+    @Test
+    void testIdsIncrease() {
+        IdGenerator generator = new IdGenerator(7);
+        long previous = generator.nextLong();
+        for (int i = 0; i < 10000; i++) {
+            long next = generator.nextLong();
+            assertTrue(next > previous);
+            assertEquals(7, IdGenerator.nodeOf(next));
+            previous = next;
+        }
+    }
+
+    @Test
+    void testTimestampAndCompactForm() {
+        long before = System.currentTimeMillis();
+        long id = new IdGenerator(1).nextLong();
+        long after = System.currentTimeMillis();
+
+        assertTrue(IdGenerator.timestampOf(id) >= before);
+        assertTrue(IdGenerator.timestampOf(id) <= after + 1);
+        assertEquals(id, IdGenerator.fromCompactString(IdGenerator.toCompactString(id)));
+        assertTrue(IdGenerator.toCompactString(id).length() <= 13);
+    }
+
+    @Test
+    void testNodesDoNotCollide() {
+        IdGenerator nodeA = new IdGenerator(1);
+        IdGenerator nodeB = new IdGenerator(2);
+        for (int i = 0; i < 1000; i++) {
+            assertNotEquals(nodeA.nextLong(), nodeB.nextLong());
+        }
+    }
+
+    @Test
+    void testInvalidNode() {
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(IdGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void testUniqueAcrossThreads() throws InterruptedException {
+        IdGenerator generator = new IdGenerator(3);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    ids.add(generator.nextLong());
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(80000, ids.size());
+    }
+
+    @Test
+    void testModelObjectsGetDistinctIds() {
+        User user = new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao");
+        Account account = new Account(user, 100);
+        CreditCard card = new CreditCard("Visa", 123456, 2035, 12);
+
+        assertNotEquals(user.getId(), account.getId());
+        assertNotEquals(account.getId(), card.getId());
+        assertNotEquals(account.getId(), user.getAccount().getId());
+    }
+}
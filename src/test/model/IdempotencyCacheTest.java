@@ -0,0 +1,118 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyCacheTest {
+    private AtomicLong testClock;
+    private IdempotencyCache testCache;
+    private Account testSenderAccount;
+    private Account testRecipientAccount;
+
+    @BeforeEach
+    void setUp() {
+        testClock = new AtomicLong();
+        testCache = new IdempotencyCache(4, 8, 10, TimeUnit.SECONDS, testClock::get);
+        testSenderAccount = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 100);
+        testRecipientAccount = new Account(new PersonalUser("$bob", "Vancouver", "Bob", "Lee"), 0);
+    }
+
+    @Test
+    void testReplayReturnsOriginal() {
+        Transaction first = testCache.getOrCreate("key", () -> testSenderAccount.sendMoney(testRecipientAccount, 5));
+        Transaction replay = testCache.getOrCreate("key", () -> testSenderAccount.sendMoney(testRecipientAccount, 5));
+        assertSame(first, replay);
+        assertSame(first, testCache.get("key"));
+        assertEquals(1, testSenderAccount.getCompletedTransactions().size());
+
+        Transaction other = testCache.getOrCreate("other", () -> testSenderAccount.sendMoney(testRecipientAccount, 5));
+        assertNotSame(first, other);
+        assertEquals(2, testCache.size());
+    }
+
+    @Test
+    void testKeysExpire() {
+        Transaction first = testCache.getOrCreate("key", () -> testSenderAccount.sendMoney(testRecipientAccount, 5));
+        testClock.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertSame(first, testCache.get("key"));
+
+        testClock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertNull(testCache.get("key"));
+        Transaction later = testCache.getOrCreate("key", () -> testSenderAccount.sendMoney(testRecipientAccount, 5));
+        assertNotSame(first, later);
+        assertEquals(1, testCache.size());
+    }
+
+    @Test
+    void testCapacityIsBounded() {
+        IdempotencyCache small = new IdempotencyCache(1, 3, 10, TimeUnit.SECONDS, testClock::get);
+        List<Transaction> made = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            made.add(small.getOrCreate("key" + i, () -> testSenderAccount.sendMoney(testRecipientAccount, 1)));
+        }
+        assertEquals(3, small.size());
+        assertNull(small.get("key0"));
+        assertNull(small.get("key1"));
+        assertSame(made.get(4), small.get("key4"));
+    }
+
+    @Test
+    void testFailureIsNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> testCache.getOrCreate("key", () -> {
+            throw new IllegalStateException();
+        }));
+        assertNull(testCache.get("key"));
+        assertEquals(0, testCache.size());
+        assertNotNull(testCache.getOrCreate("key", () -> testSenderAccount.sendMoney(testRecipientAccount, 5)));
+    }
+
+    @Test
+    void testConcurrentCallersShareOneTransaction() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Transaction>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return testCache.getOrCreate("key", () -> {
+                    runs.incrementAndGet();
+                    return testSenderAccount.sendMoney(testRecipientAccount, 5);
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<Transaction> result : results) {
+            assertSame(results.get(0).get(), result.get());
+        }
+        pool.shutdown();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testAccountOverloads() {
+        String key = IdGenerator.newId();
+        Transaction sent = testSenderAccount.sendMoney(testRecipientAccount, 5, key);
+        assertSame(sent, testSenderAccount.sendMoney(testRecipientAccount, 5, key));
+        assertEquals(1, testRecipientAccount.getCompletedTransactions().size());
+
+        Transaction request = testRecipientAccount.requestMoney(testSenderAccount, 5, key);
+        assertNotSame(sent, request);
+        assertSame(request, testRecipientAccount.requestMoney(testSenderAccount, 5, key));
+
+        Account shop = new Account(new BusinessUser("$amazon", "Seattle", "Amazon",
+                BusinessUser.BusinessType.RETAILER), 0);
+        String purchaseKey = IdGenerator.newId();
+        Transaction purchase = testSenderAccount.makePurchase(shop, 10, purchaseKey);
+        assertSame(purchase, testSenderAccount.makePurchase(shop, 10, purchaseKey));
+        assertEquals(1, shop.getCompletedTransactions().size());
+    }
+}
@@ -0,0 +1,149 @@
+package model;
+
+import model.boosts.ShopaholicBoost;
+import model.exceptions.InsufficientFundsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LedgerTest {
+    private Ledger testLedger;
+    private Account testAccountA;
+    private Account testAccountB;
+    private Account testRetailAccount;
+
+    @BeforeEach
+    void setUp() {
+        testLedger = new Ledger();
+        testAccountA = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 100, testLedger);
+        testAccountB = new Account(new PersonalUser("$moneymaker", "Toronto", "Bob", "Marley"), 0, testLedger);
+        testRetailAccount = new Account(
+                new BusinessUser("$amazon", "Seattle", "Amazon", BusinessUser.BusinessType.RETAILER), 0, testLedger);
+        testRetailAccount.enableBalanceStriping();
+    }
+
+    @Test
+    void testEveryBalanceChangeIsPosted() throws InsufficientFundsException {
+        testAccountA.addBoost(new ShopaholicBoost());
+        testAccountA.sendMoney(testAccountB, 30);
+        testAccountA.makePurchase(testRetailAccount, 20);
+        testAccountA.receiveMoney(5);
+        testAccountA.decrementBalance(10);
+        testAccountA.sendMoneyBatch(Arrays.asList(new Transfer(testAccountB, 1), new Transfer(testRetailAccount, 2)));
+
+        List<Ledger.Posting> postings = testLedger.postingsOf(testAccountA.getId());
+        assertEquals(8, postings.size());
+        assertEquals(Ledger.Kind.OPENING, postings.get(0).getKind());
+        assertNull(postings.get(0).getDebitId());
+        assertEquals(Ledger.Kind.TRANSFER, postings.get(1).getKind());
+        assertEquals(testAccountB.getId(), postings.get(1).getCreditId());
+        assertEquals(Ledger.Kind.CASHBACK, postings.get(3).getKind());
+        assertEquals(Ledger.Kind.WITHDRAWAL, postings.get(5).getKind());
+
+        assertEquals(testAccountA.getBalanceCents(), testLedger.balanceOf(testAccountA.getId()));
+        assertEquals(testAccountB.getBalanceCents(), testLedger.balanceOf(testAccountB.getId()));
+        assertEquals(testRetailAccount.getBalanceCents(), testLedger.balanceOf(testRetailAccount.getId()));
+    }
+
+    @Test
+    void testFailedChangesAreNotPosted() {
+        testAccountB.sendMoney(testAccountA, 10);
+        assertFalse(testAccountB.tryDebit(1));
+        assertThrows(InsufficientFundsException.class,
+                () -> testAccountB.sendMoneyBatch(Arrays.asList(new Transfer(testAccountA, 1))));
+
+        assertTrue(testLedger.postingsOf(testAccountB.getId()).isEmpty());
+    }
+
+    @Test
+    void testReferralRewardIsPosted() {
+        PersonalUser user = (PersonalUser) testAccountB.getUser();
+        user.setAccount(testAccountB);
+        for (int i = 0; i < 5; i++) {
+            user.referFriend("friend" + i + "@gmail.com");
+        }
+
+        List<Ledger.Posting> postings = testLedger.postingsOf(testAccountB.getId());
+        assertEquals(1, postings.size());
+        assertEquals(Ledger.Kind.REFERRAL, postings.get(0).getKind());
+        assertEquals(500, testLedger.balanceOf(testAccountB.getId()));
+    }
+
+    @Test
+    void testConcurrentAppendsAcrossChunks() throws InterruptedException {
+        Ledger ledger = new Ledger(1);
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    ledger.append(Ledger.Kind.DEPOSIT, null, testAccountA.getId(), 1);
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread writer : writers) {
+            writer.join(10000);
+        }
+
+        assertEquals(40000, ledger.size());
+        assertEquals(40000, ledger.balanceOf(testAccountA.getId()));
+        for (int i = 0; i < 40000; i++) {
+            assertEquals(i, ledger.get(i).getSequence());
+        }
+        assertNull(ledger.get(40000));
+        assertNull(ledger.get(-1));
+    }
+
+    @Test
+    void testEveryPostingIsKept() {
+        Ledger ledger = new Ledger(2);
+        for (int i = 0; i < 50000; i++) {
+            ledger.append(Ledger.Kind.DEPOSIT, null, testAccountA.getId(), 1);
+        }
+
+        assertEquals(50000, ledger.size());
+        assertEquals(50000, ledger.balanceOf(testAccountA.getId()));
+        assertEquals(0, ledger.get(0).getSequence());
+        assertEquals(32767, ledger.get(32767).getSequence());
+        assertEquals(50000, ledger.postingsOf(testAccountA.getId()).size());
+    }
+
+    @Test
+    void testAttachedAccountsPostTheirBalanceAsOpening() {
+        Account loaded = new Account(new PersonalUser("$loaded", "Vancouver", "Lo", "Aded"), 40);
+        loaded.setLedger(testLedger);
+        loaded.setLedger(testLedger);
+        Account counterparty = new Account(new PersonalUser("$other", "Toronto", "Ot", "Her"), 1000);
+
+        List<Ledger.Posting> postings = testLedger.postingsOf(loaded.getId());
+        assertEquals(1, postings.size());
+        assertEquals(Ledger.Kind.OPENING, postings.get(0).getKind());
+        assertEquals(loaded.getBalanceCents(), testLedger.balanceOf(loaded.getId()));
+        assertTrue(testLedger.postingsOf(counterparty.getId()).isEmpty());
+
+        loaded.sendMoney(testAccountB, 15);
+
+        assertEquals(2500, testLedger.balanceOf(loaded.getId()));
+        assertEquals(loaded.getBalanceCents(), testLedger.balanceOf(loaded.getId()));
+        assertEquals(1500, testLedger.balanceOf(testAccountB.getId()));
+        assertEquals(1, testLedger.postingsOf(testAccountB.getId()).size());
+    }
+
+    @Test
+    void testLedgersAreSeparate() {
+        Ledger otherLedger = new Ledger();
+        Account other = new Account(new PersonalUser("$other", "Toronto", "Ot", "Her"), 10, otherLedger);
+        other.sendMoney(testAccountA, 5);
+
+        assertEquals(500, otherLedger.balanceOf(other.getId()));
+        assertEquals(500, otherLedger.balanceOf(testAccountA.getId()));
+        assertEquals(10500, testLedger.balanceOf(testAccountA.getId()));
+        assertEquals(1, testLedger.postingsOf(other.getId()).size());
+        assertEquals(2, otherLedger.size());
+        assertEquals(0, otherLedger.balanceOf("unknown"));
+    }
+}
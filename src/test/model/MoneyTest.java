@@ -0,0 +1,44 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void testToCents() {
+        assertEquals(10050, Money.toCents(100.50));
+        assertEquals(199030, Money.toCents(1990.30));
+        assertEquals(1, Money.toCents(0.005));
+        assertEquals(0, Money.toCents(0.004));
+    }
+
+    @Test
+    void testToDollars() {
+        assertEquals(100.50, Money.toDollars(10050));
+        assertEquals(1990.30, Money.toDollars(199030));
+        assertEquals(0, Money.toDollars(0));
+    }
+
+    @Test
+    void testPercentOfRoundsHalfUp() {
+        assertEquals(30, Money.percentOf(1000, 3));
+        assertEquals(10000, Money.percentOf(100000, 10));
+        // 3% of $0.50 is 1.5 cents
+        assertEquals(2, Money.percentOf(50, 3));
+        // 3% of $0.49 is 1.47 cents
+        assertEquals(1, Money.percentOf(49, 3));
+    }
+
+    @Test
+    void testRepeatedCentsStayExact() {
+        User user = new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao");
+        Account account = new Account(user, 0);
+        for (int i = 0; i < 10; i++) {
+            account.incrementBalance(0.10);
+        }
+        assertEquals(100, account.getBalanceCents());
+        assertEquals(1.0, account.getBalance());
+    }
+}
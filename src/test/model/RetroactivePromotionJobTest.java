@@ -0,0 +1,121 @@
+package model;
+
+import model.boosts.FoodieBoost;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetroactivePromotionJobTest {
+    private AccountDirectory testDirectory;
+    private Account testCafeAccount;
+    private Account testRetailAccount;
+    private RetroactivePromotionJob testJob;
+
+    @BeforeEach
+    void setUp() {
+        testDirectory = new AccountDirectory();
+        testCafeAccount = new Account(
+                new BusinessUser("$starbucks", "Seattle", "Starbucks", BusinessUser.BusinessType.CAFE), 0);
+        testRetailAccount = new Account(
+                new BusinessUser("$amazon", "Seattle", "Amazon", BusinessUser.BusinessType.RETAILER), 0);
+        testDirectory.register(testCafeAccount);
+        testDirectory.register(testRetailAccount);
+        testJob = new RetroactivePromotionJob("foodie-last-month", new FoodieBoost(), LocalDate.now().minusMonths(1), LocalDate.now(), 8);
+    }
+
+    @Test
+    void testCreditsQualifyingPurchasesOnce() {
+        Account buyer = addBuyer(0, 100);
+        buyer.makePurchase(testCafeAccount, 50);
+        buyer.makePurchase(testRetailAccount, 20);
+        buyer.makePurchase(testCafeAccount, 500);
+
+        testJob.run(testDirectory, ForkJoinPool.commonPool());
+
+        assertEquals(31.5, buyer.getBalance());
+        assertEquals(1, testJob.getCreditedPurchaseCount());
+        assertEquals(150, testJob.getCreditedCents());
+        Transaction cashBack = buyer.copyTransactions(Transaction.Status.COMPLETE).get(2);
+        assertEquals(Transaction.Type.CASHBACK, cashBack.getType());
+
+        testJob.run(testDirectory, ForkJoinPool.commonPool());
+        assertEquals(31.5, buyer.getBalance());
+        assertEquals(150, testJob.getCreditedCents());
+    }
+
+    @Test
+    void testNewJobForSamePromotionDoesNotPayAgain() {
+        Account buyer = addBuyer(0, 100);
+        buyer.makePurchase(testCafeAccount, 50);
+        testJob.run(testDirectory, ForkJoinPool.commonPool());
+
+        RetroactivePromotionJob restarted = new RetroactivePromotionJob("foodie-last-month", new FoodieBoost(),
+                LocalDate.now().minusMonths(1), LocalDate.now(), 8);
+        restarted.run(testDirectory, ForkJoinPool.commonPool());
+        assertEquals(51.5, buyer.getBalance());
+        assertEquals(0, restarted.getCreditedPurchaseCount());
+
+        buyer.makePurchase(testCafeAccount, 10);
+        restarted.run(testDirectory, ForkJoinPool.commonPool());
+        assertEquals(41.8, buyer.getBalance());
+        assertEquals(1, restarted.getCreditedPurchaseCount());
+    }
+
+    @Test
+    void testOtherPromotionHasItsOwnWatermark() {
+        Account buyer = addBuyer(0, 100);
+        buyer.makePurchase(testCafeAccount, 50);
+        testJob.run(testDirectory, ForkJoinPool.commonPool());
+
+        RetroactivePromotionJob other = new RetroactivePromotionJob("foodie-bonus", new FoodieBoost(),
+                LocalDate.now().minusMonths(1), LocalDate.now(), 8);
+        other.run(testDirectory, ForkJoinPool.commonPool());
+
+        assertEquals(53.0, buyer.getBalance());
+        assertNotEquals(Account.NO_WATERMARK, buyer.getPromotionWatermark("foodie-bonus"));
+        assertEquals(Account.NO_WATERMARK, buyer.getPromotionWatermark("unknown"));
+    }
+
+    @Test
+    void testPurchasesOutsideWindowAreSkipped() {
+        RetroactivePromotionJob lastYear = new RetroactivePromotionJob("foodie-last-year", new FoodieBoost(),
+                LocalDate.now().minusYears(1), LocalDate.now().minusMonths(6), 8);
+        Account buyer = addBuyer(0, 100);
+        buyer.makePurchase(testCafeAccount, 50);
+
+        lastYear.run(testDirectory, ForkJoinPool.commonPool());
+
+        assertEquals(50.0, buyer.getBalance());
+        assertEquals(0, lastYear.getCreditedPurchaseCount());
+    }
+
+    @Test
+    void testShardProgress() {
+        for (int i = 0; i < 100; i++) {
+            addBuyer(i, 10).makePurchase(testCafeAccount, 10);
+        }
+
+        testJob.run(testDirectory, new ForkJoinPool(4));
+
+        assertEquals(13, testJob.getShardCount());
+        int scanned = 0;
+        for (int shard = 0; shard < testJob.getShardCount(); shard++) {
+            assertEquals(testJob.getShardSize(shard), testJob.getShardProgress(shard));
+            scanned += testJob.getShardProgress(shard);
+        }
+        assertEquals(102, scanned);
+        assertEquals(6, testJob.getShardSize(12));
+        assertEquals(100, testJob.getCreditedPurchaseCount());
+        assertEquals(3000, testJob.getCreditedCents());
+    }
+
+    private Account addBuyer(int n, double balance) {
+        Account buyer = new Account(new PersonalUser("$buyer" + n, "Vancouver", "Buyer", "" + n), balance);
+        testDirectory.register(buyer);
+        return buyer;
+    }
+}
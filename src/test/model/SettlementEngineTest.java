@@ -0,0 +1,99 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SettlementEngineTest {
+    private SettlementEngine testEngine;
+    private Account testRequesterAccount;
+    private Account testPayerAccount;
+
+    @BeforeEach
+    void setUp() {
+        testEngine = new SettlementEngine(4, 1000);
+        testRequesterAccount = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 0);
+        testPayerAccount = new Account(new PersonalUser("$moneymaker", "Toronto", "Bob", "Marley"), 50);
+    }
+
+    @Test
+    void testRequestsAreSettled() throws InterruptedException {
+        List<Transaction> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Transaction request = testRequesterAccount.requestMoney(testPayerAccount, 1);
+            requests.add(request);
+            assertTrue(testEngine.accept(testPayerAccount, request));
+        }
+        testEngine.shutdown();
+        assertTrue(testEngine.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, testEngine.getSettledCount());
+        assertEquals(50, testEngine.getFailedCount());
+        assertEquals(0, testEngine.getBacklog());
+        assertEquals(50.0, testRequesterAccount.getBalance());
+        assertEquals(0.0, testPayerAccount.getBalance());
+        assertEquals(0, testRequesterAccount.getTransactionCount(Transaction.Status.PENDING));
+        assertTrue(testEngine.getAverageSettleLatencyNanos() > 0);
+        assertTrue(testEngine.getMaxSettleLatencyNanos() >= testEngine.getAverageSettleLatencyNanos());
+    }
+
+    @Test
+    void testOnlyPendingRequestsAreAccepted() {
+        Transaction sent = testPayerAccount.sendMoney(testRequesterAccount, 10);
+        Transaction request = testRequesterAccount.requestMoney(testPayerAccount, 10);
+        request.completeTransaction();
+
+        assertFalse(testEngine.accept(testRequesterAccount, sent));
+        assertFalse(testEngine.accept(testPayerAccount, request));
+    }
+
+    @Test
+    void testUnacceptedRequestMovesNoMoney() throws InterruptedException {
+        Transaction request = testRequesterAccount.requestMoney(testPayerAccount, 10);
+
+        assertFalse(testEngine.accept(testRequesterAccount, request));
+        testEngine.shutdown();
+        assertTrue(testEngine.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(Transaction.Status.PENDING, request.getStatus());
+        assertEquals(0.0, testRequesterAccount.getBalance());
+        assertEquals(50.0, testPayerAccount.getBalance());
+        assertEquals(0, testEngine.getSettledCount());
+        assertEquals(List.of(request), testPayerAccount.getRequestsToPay());
+        assertTrue(testRequesterAccount.getRequestsToPay().isEmpty());
+    }
+
+    @Test
+    void testRequestIsSettledOnce() throws InterruptedException {
+        Transaction request = testRequesterAccount.requestMoney(testPayerAccount, 10);
+        assertTrue(testEngine.accept(testPayerAccount, request));
+        request.completeTransaction();
+        testEngine.shutdown();
+        assertTrue(testEngine.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(10.0, testRequesterAccount.getBalance());
+        assertEquals(40.0, testPayerAccount.getBalance());
+    }
+
+    @Test
+    void testFullQueueRejects() {
+        SettlementEngine engine = new SettlementEngine(1, 1);
+        testEngine.shutdown();
+        assertFalse(testEngine.accept(testPayerAccount, testRequesterAccount.requestMoney(testPayerAccount, 1)));
+
+        int accepted = 0;
+        for (int i = 0; i < 50; i++) {
+            if (engine.accept(testPayerAccount, testRequesterAccount.requestMoney(testPayerAccount, 1))) {
+                accepted++;
+            }
+        }
+        assertTrue(accepted >= 2);
+        assertTrue(accepted < 50 || engine.getSettledCount() > 0);
+        engine.shutdown();
+    }
+}
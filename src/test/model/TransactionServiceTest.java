@@ -0,0 +1,84 @@
+package model;
+
+import model.exceptions.InsufficientFundsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionServiceTest {
+    private TransactionService testService;
+    private Account testAccountA;
+    private Account testAccountB;
+    private CreditCard testCard;
+
+    @BeforeEach
+    void setUp() {
+        testService = new TransactionService();
+        testAccountA = new Account(new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao"), 100);
+        testAccountB = new Account(new PersonalUser("$moneymaker", "Toronto", "Bob", "Marley"), 0);
+        testCard = new CreditCard("Visa", 12345, 2035, 12);
+    }
+
+    @Test
+    void testOperationsComplete() throws Exception {
+        Transaction sent = testService.sendMoney(testAccountA, testAccountB, 30).get(10, TimeUnit.SECONDS);
+        Transaction request = testService.requestMoney(testAccountA, testAccountB, 5).get(10, TimeUnit.SECONDS);
+        double balance = testService.deposit(testAccountB, testCard, 20).get(10, TimeUnit.SECONDS);
+
+        assertEquals(Transaction.Status.COMPLETE, sent.getStatus());
+        assertEquals(Transaction.Status.PENDING, request.getStatus());
+        assertEquals(50.0, balance);
+        assertTrue(testService.withdraw(testAccountA, testCard, 70).get(10, TimeUnit.SECONDS));
+        assertEquals(0.0, testAccountA.getBalance());
+    }
+
+    @Test
+    void testCheckedExceptionFailsFuture() {
+        CompletableFuture<Boolean> withdrawal = testService.withdraw(testAccountB, testCard, 1);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> withdrawal.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof InsufficientFundsException);
+    }
+
+    @Test
+    void testErrorFailsFuture() {
+        Account broken = new Account(new PersonalUser("$broken", "Vancouver", "Bro", "Ken"), 100) {
+            @Override
+            public Transaction sendMoney(Account recipient, double amount) {
+                throw new StackOverflowError();
+            }
+        };
+        CompletableFuture<Transaction> sent = testService.sendMoney(broken, testAccountB, 1);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> sent.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof StackOverflowError);
+    }
+
+    @Test
+    void testManyConcurrentOperations() throws Exception {
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(testService.sendMoney(testAccountA, testAccountB, 0.1));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(0.0, testAccountA.getBalance());
+        assertEquals(100.0, testAccountB.getBalance());
+    }
+
+    @Test
+    void testShutDownServiceRejects() {
+        TransactionService service = new TransactionService(Executors.newSingleThreadExecutor());
+        assertFalse(service.isVirtual());
+        service.shutdown();
+
+        CompletableFuture<Transaction> sent = service.sendMoney(testAccountA, testAccountB, 1);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> sent.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+}
@@ -3,6 +3,8 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -101,4 +103,21 @@ public class TransactionTest {
         assertEquals(0, testSender.getBalance());
         assertEquals(600, testReceiver.getBalance());
     }
+
+    @Test
+    void testRestoreTakesFieldsVerbatim() {
+        LocalDate date = LocalDate.of(2024, 3, 14);
+        Transaction restored = Transaction.restore("t1", testReceiver, testSender, 2550, date,
+                Transaction.Status.PENDING, Transaction.Type.EXCHANGE);
+
+        assertEquals("t1", restored.getId());
+        assertEquals(date, restored.getDate());
+        assertEquals(2550, restored.getAmountCents());
+        assertEquals(Transaction.Status.PENDING, restored.getStatus());
+        assertEquals(Transaction.Type.EXCHANGE, restored.getType());
+        assertSame(testReceiver, restored.getRecipientAccount());
+        assertSame(testSender, restored.getSenderAccount());
+        assertEquals(0, testSender.getBalance());
+        assertEquals(600, testReceiver.getBalance());
+    }
 }
@@ -0,0 +1,218 @@
+package persistence;
+
+import model.*;
+import model.boosts.FoodieBoost;
+import model.exceptions.InsufficientFundsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Represents test class for EventStore
+public class EventStoreTest {
+    private Path directory;
+    private PersonalUser alice;
+    private Account aliceAccount;
+    private Account bobAccount;
+    private Account restaurantAccount;
+    private AccountDirectory accounts;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("eventStore");
+        alice = new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao");
+        aliceAccount = new Account(alice, 100);
+        alice.setAccount(aliceAccount);
+        bobAccount = new Account(new PersonalUser("$bob", "Vancouver", "Bob", "Lee"), 50);
+        restaurantAccount = new Account(new BusinessUser("$sushi", "Vancouver", "Sushi Place",
+                BusinessUser.BusinessType.RESTAURANT), 500);
+        accounts = new AccountDirectory();
+        accounts.register(bobAccount);
+        accounts.register(restaurantAccount);
+    }
+
+    @Test
+    void testRecoverNothingStored() throws IOException {
+        assertNull(new EventStore(directory.toString()).recover(accounts));
+    }
+
+    @Test
+    void testAttachWritesSnapshot() throws IOException {
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        assertSame(store, aliceAccount.getEventListener());
+        assertTrue(Files.exists(directory.resolve("snapshot.json")));
+        assertEquals(0, logLines().size());
+        store.close();
+    }
+
+    @Test
+    void testSnapshotIsAnAccountFile() throws IOException {
+        aliceAccount.sendMoney(bobAccount, 10);
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        store.close();
+
+        Account read = new JsonAccountReader(directory.resolve("snapshot.json").toString()).read();
+        assertEquals(aliceAccount.getId(), read.getId());
+        assertEquals(90.0, read.getBalance());
+        assertEquals(1, read.getCompletedTransactions().size());
+        assertFalse(Files.exists(directory.resolve("snapshot.json.tmp")));
+    }
+
+    @Test
+    void testEventsAreLogged() throws IOException {
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        aliceAccount.sendMoney(bobAccount, 10);
+        aliceAccount.addBoost(new FoodieBoost());
+        alice.referFriend("friend@mail.com");
+        store.close();
+
+        List<String> lines = logLines();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("MoneySent"));
+        assertTrue(lines.get(1).contains("BoostAdded"));
+        assertTrue(lines.get(2).contains("FriendReferred"));
+        assertEquals(3, store.getSequence());
+    }
+
+    @Test
+    void testRecoverReplaysEvents() throws IOException {
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        aliceAccount.addBoost(new FoodieBoost());
+        aliceAccount.addCreditCard(new CreditCard("Visa", 123456, 2099, 12));
+        aliceAccount.sendMoney(bobAccount, 10);
+        aliceAccount.makePurchase(restaurantAccount, 20);
+        aliceAccount.incrementBalance(5);
+        alice.referFriend("friend@mail.com");
+        store.close();
+
+        Account recovered = new EventStore(directory.toString()).recover(accounts);
+        assertEquals(aliceAccount.getId(), recovered.getId());
+        assertEquals(aliceAccount.getBalanceCents(), recovered.getBalanceCents());
+        assertEquals(2, recovered.getCompletedTransactions().size());
+        assertEquals(1, recovered.getBoosts().size());
+        assertEquals(1, recovered.getCreditCards().size());
+        assertEquals(1, ((PersonalUser) recovered.getUser()).getReferredFriends().size());
+        Transaction sent = recovered.getCompletedTransactions().get(0);
+        assertSame(bobAccount, sent.getRecipientAccount());
+        assertSame(recovered, sent.getSenderAccount());
+    }
+
+    @Test
+    void testEveryTransactionChangeIsLogged() throws IOException, InsufficientFundsException {
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        aliceAccount.sendMoneyBatch(List.of(new Transfer(bobAccount, 1), new Transfer(restaurantAccount, 2)));
+        Transaction request = aliceAccount.requestMoney(bobAccount, 4);
+        request.completeTransaction();
+        aliceAccount.postCashBack(50);
+        store.close();
+
+        List<String> lines = logLines();
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(0).contains("MoneySent"));
+        assertTrue(lines.get(1).contains("MoneySent"));
+        assertTrue(lines.get(2).contains("MoneyRequested"));
+        assertTrue(lines.get(3).contains("RequestSettled"));
+        assertTrue(lines.get(4).contains("CashBackPosted"));
+
+        Account recovered = new EventStore(directory.toString()).recover(accounts);
+        assertEquals(aliceAccount.getBalanceCents(), recovered.getBalanceCents());
+        assertEquals(4, recovered.getCompletedTransactions().size());
+        assertTrue(recovered.getPendingTransactions().isEmpty());
+        Transaction settled = recovered.getCompletedTransactions().get(2);
+        assertEquals(request.getId(), settled.getId());
+        assertEquals(Transaction.Type.REQUEST, settled.getType());
+        assertEquals(Transaction.Type.CASHBACK, recovered.getCompletedTransactions().get(3).getType());
+    }
+
+    @Test
+    void testRecoverPendingRequest() throws IOException {
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        Transaction request = aliceAccount.requestMoney(bobAccount, 4);
+        store.close();
+
+        Account recovered = new EventStore(directory.toString()).recover(accounts);
+        assertEquals(1, recovered.getPendingTransactions().size());
+        assertEquals(request.getId(), recovered.getPendingTransactions().get(0).getId());
+        assertEquals(Transaction.Type.REQUEST, recovered.getPendingTransactions().get(0).getType());
+    }
+
+    @Test
+    void testRecoverWithoutDirectory() throws IOException {
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        aliceAccount.sendMoney(bobAccount, 10);
+        aliceAccount.sendMoney(bobAccount, 5);
+        store.close();
+
+        Account recovered = new EventStore(directory.toString()).recover(null);
+        assertEquals(8500, recovered.getBalanceCents());
+        Transaction first = recovered.getCompletedTransactions().get(0);
+        Transaction second = recovered.getCompletedTransactions().get(1);
+        assertEquals(bobAccount.getId(), first.getRecipientAccount().getId());
+        assertEquals("$bob", first.getRecipientUsername());
+        assertSame(first.getRecipientAccount(), second.getRecipientAccount());
+    }
+
+    @Test
+    void testSnapshotInterval() throws IOException {
+        EventStore store = new EventStore(directory.toString(), 3);
+        store.attach(aliceAccount);
+        for (int i = 0; i < 7; i++) {
+            aliceAccount.sendMoney(bobAccount, 1);
+        }
+        store.close();
+        assertEquals(1, logLines().size());
+
+        Account recovered = new EventStore(directory.toString(), 3).recover(accounts);
+        assertEquals(9300, recovered.getBalanceCents());
+        assertEquals(7, recovered.getCompletedTransactions().size());
+    }
+
+    @Test
+    void testRecoverStopsAtTornLine() throws IOException {
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        aliceAccount.sendMoney(bobAccount, 10);
+        store.close();
+        Files.write(directory.resolve("events.jsonl"), "{\"event\":\"Mon".getBytes(StandardCharsets.UTF_8),
+                java.nio.file.StandardOpenOption.APPEND);
+
+        Account recovered = new EventStore(directory.toString()).recover(accounts);
+        assertEquals(9000, recovered.getBalanceCents());
+        assertEquals(1, recovered.getCompletedTransactions().size());
+    }
+
+    @Test
+    void testRecoveredAccountKeepsLogging() throws IOException {
+        EventStore store = new EventStore(directory.toString());
+        store.attach(aliceAccount);
+        aliceAccount.sendMoney(bobAccount, 10);
+        store.close();
+
+        EventStore reopened = new EventStore(directory.toString());
+        Account recovered = reopened.recover(accounts);
+        recovered.sendMoney(bobAccount, 10);
+        reopened.close();
+        assertEquals(2, reopened.getSequence());
+
+        Account again = new EventStore(directory.toString()).recover(accounts);
+        assertEquals(8000, again.getBalanceCents());
+        assertEquals(2, again.getCompletedTransactions().size());
+    }
+
+    private List<String> logLines() throws IOException {
+        return Files.readAllLines(directory.resolve("events.jsonl"), StandardCharsets.UTF_8);
+    }
+}
@@ -5,10 +5,15 @@ import model.boosts.Boost;
 import model.boosts.FoodieBoost;
 import model.boosts.HighRollerBoost;
 import model.boosts.ShopaholicBoost;
+import org.json.JSONException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
 
@@ -35,6 +40,25 @@ public class JsonAccountReaderTest extends JsonAccountTest {
         }
     }
 
+    @Test
+    void testReadAccountAttachedToLedgerAgrees() {
+        JsonAccountReader reader = new JsonAccountReader("./data/testAccountWriterDefault.json");
+        try {
+            Account readAccount = reader.read();
+            Ledger ledger = new Ledger();
+            Account other = new Account(new PersonalUser("$other", "Toronto", "Ot", "Her"), 0, ledger);
+
+            readAccount.setLedger(ledger);
+            assertEquals(10000, ledger.balanceOf(readAccount.getId()));
+
+            readAccount.sendMoney(other, 25);
+            assertEquals(readAccount.getBalanceCents(), ledger.balanceOf(readAccount.getId()));
+            assertEquals(other.getBalanceCents(), ledger.balanceOf(other.getId()));
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be read");
+        }
+    }
+
     @Test
     void testReaderAccountDefault() {
         JsonAccountReader reader = new JsonAccountReader("./data/testAccountWriterDefault.json");
@@ -115,4 +139,206 @@ public class JsonAccountReaderTest extends JsonAccountTest {
             Assertions.fail("Oops! This file cannot be read");
         }
     }
+
+    @Test
+    void testReadFieldsInAnyOrder() {
+        String json = "{\"transactions\": [], \"boosts\": [{\"boostType\": \"FOODIE\"}], \"balance\": 12.5,"
+                + " \"creditCards\": [], \"id\": \"acc1\", \"user\": {\"userType\": \"PERSONAL\","
+                + " \"username\": \"$bob\", \"location\": \"Vancouver\", \"id\": \"user1\","
+                + " \"firstName\": \"Bob\", \"lastName\": \"Lee\"}}";
+        try {
+            Account readAccount = new JsonAccountReader(writeTempFile(json)).read();
+            assertEquals("acc1", readAccount.getId());
+            assertEquals(1250, readAccount.getBalanceCents());
+            assertEquals("$bob", readAccount.getUser().getUsername());
+            assertEquals(1, readAccount.getBoosts().size());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be read");
+        }
+    }
+
+    @Test
+    void testReadMalformedFile() {
+        try {
+            String path = writeTempFile("{\"balance\": 1, \"transactions\": [1, 2]}");
+            assertThrows(JSONException.class, () -> new JsonAccountReader(path).read());
+            String truncated = writeTempFile("{\"balance\": 1, \"transactions\": [");
+            assertThrows(JSONException.class, () -> new JsonAccountReader(truncated).read());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be written");
+        }
+    }
+
+    @Test
+    void testReadLongHistory() {
+        testUser = new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao");
+        testPersonalAccount = new Account(testUser, 10000);
+        testBusinessAccount = new Account(new BusinessUser(
+                "$amazon", "Seattle", "Amazon", BusinessUser.BusinessType.RETAILER), 0);
+        for (int i = 0; i < 2000; i++) {
+            testPersonalAccount.makePurchase(testBusinessAccount, 1);
+        }
+        try {
+            File file = File.createTempFile("testReaderLongHistory", ".json");
+            file.deleteOnExit();
+            JsonAccountWriter writer = new JsonAccountWriter(file.getPath());
+            writer.open();
+            writer.write(testPersonalAccount);
+            writer.close();
+
+            Account readAccount = new JsonAccountReader(file.getPath()).read();
+            assertEquals(testPersonalAccount.getBalanceCents(), readAccount.getBalanceCents());
+            assertEquals(2000, readAccount.getCompletedTransactions().size());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be read");
+        }
+    }
+
+    @Test
+    void testReadVersion1Transactions() {
+        String json = "{\"balance\": 5, \"id\": \"acc1\", \"user\": " + userJson("user1", "$bob")
+                + ", \"creditCards\": [], \"boosts\": [], \"transactions\": [" + transactionJson("t1",
+                accountJson("acc2", "$amazon"), accountJson("acc1", "$bob")) + "]}";
+        try {
+            Account readAccount = new JsonAccountReader(writeTempFile(json)).read();
+            Transaction transaction = readAccount.getCompletedTransactions().get(0);
+            assertEquals("t1", transaction.getId());
+            assertEquals("acc2", transaction.getRecipientAccount().getId());
+            assertEquals("$amazon", transaction.getRecipientUsername());
+            assertEquals("acc1", transaction.getSenderAccount().getId());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be read");
+        }
+    }
+
+    @Test
+    void testReadVersion2TransactionsBeforeAccountsTable() {
+        String json = "{\"version\": 2, \"transactions\": [" + transactionJson("t1", "\"acc2\"", "\"acc1\"")
+                + ", " + transactionJson("t2", "\"acc2\"", "\"acc1\"") + "], \"balance\": 5, \"id\": \"acc1\","
+                + " \"user\": " + userJson("user1", "$bob") + ", \"creditCards\": [], \"boosts\": [],"
+                + " \"accounts\": {\"acc1\": " + accountJson("acc1", "$bob") + ", \"acc2\": "
+                + accountJson("acc2", "$amazon") + "}}";
+        try {
+            Account readAccount = new JsonAccountReader(writeTempFile(json)).read();
+            List<Transaction> transactions = readAccount.getCompletedTransactions();
+            assertEquals(2, transactions.size());
+            assertEquals("t1", transactions.get(0).getId());
+            assertEquals("$amazon", transactions.get(0).getRecipientUsername());
+            assertSame(transactions.get(0).getRecipientAccount(), transactions.get(1).getRecipientAccount());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be read");
+        }
+    }
+
+    @Test
+    void testReadVersion2BadReferences() {
+        String prefix = "{\"balance\": 5, \"id\": \"acc1\", \"user\": " + userJson("user1", "$bob")
+                + ", \"creditCards\": [], \"boosts\": [], \"transactions\": ["
+                + transactionJson("t1", "\"acc2\"", "\"acc1\"") + "]";
+        try {
+            String noTable = writeTempFile(prefix + ", \"version\": 2}");
+            assertThrows(JSONException.class, () -> new JsonAccountReader(noTable).read());
+            String unknownId = writeTempFile(prefix + ", \"version\": 2, \"accounts\": {}}");
+            assertThrows(JSONException.class, () -> new JsonAccountReader(unknownId).read());
+            String futureVersion = writeTempFile(prefix + ", \"version\": 3, \"accounts\": {\"acc1\": "
+                    + accountJson("acc1", "$bob") + ", \"acc2\": " + accountJson("acc2", "$amazon") + "}}");
+            assertThrows(JSONException.class, () -> new JsonAccountReader(futureVersion).read());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be written");
+        }
+    }
+
+    @Test
+    void testReadSharesAccountsById() {
+        testUser = new PersonalUser("$alicelovescake", "Vancouver", "Alice", "Zhao");
+        testPersonalAccount = new Account(testUser, 100);
+        testBusinessAccount = new Account(new BusinessUser(
+                "$amazon", "Seattle", "Amazon", BusinessUser.BusinessType.RETAILER), 0);
+        testPersonalAccount.makePurchase(testBusinessAccount, 10);
+        testPersonalAccount.makePurchase(testBusinessAccount, 20);
+        try {
+            File file = File.createTempFile("testReaderIdentity", ".json");
+            file.deleteOnExit();
+            JsonAccountWriter writer = new JsonAccountWriter(file.getPath());
+            writer.open();
+            writer.write(testPersonalAccount);
+            writer.close();
+
+            Account readAccount = new JsonAccountReader(file.getPath()).read();
+            List<Transaction> transactions = readAccount.getCompletedTransactions();
+            assertSame(readAccount, transactions.get(0).getSenderAccount());
+            assertSame(readAccount, transactions.get(1).getSenderAccount());
+            assertSame(transactions.get(0).getRecipientAccount(), transactions.get(1).getRecipientAccount());
+            assertEquals(testBusinessAccount.getId(), transactions.get(0).getRecipientAccount().getId());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be read");
+        }
+    }
+
+    @Test
+    void testReadVersion1SharesAccountsById() {
+        String json = "{\"transactions\": [" + transactionJson("t1", accountJson("acc2", "$amazon"),
+                accountJson("acc1", "$bob")) + ", " + transactionJson("t2", accountJson("acc2", "$amazon"),
+                accountJson("acc1", "$bob")) + "], \"balance\": 0, \"id\": \"acc1\", \"user\": "
+                + userJson("uacc1", "$bob") + ", \"creditCards\": [], \"boosts\": []}";
+        try {
+            Account readAccount = new JsonAccountReader(writeTempFile(json)).read();
+            List<Transaction> transactions = readAccount.getCompletedTransactions();
+            assertEquals("acc1", readAccount.getId());
+            assertSame(readAccount, transactions.get(0).getSenderAccount());
+            assertSame(readAccount, transactions.get(1).getSenderAccount());
+            assertSame(transactions.get(0).getRecipientAccount(), transactions.get(1).getRecipientAccount());
+            assertSame(transactions.get(0).getRecipientAccount().getUser(),
+                    transactions.get(1).getRecipientAccount().getUser());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be read");
+        }
+    }
+
+    @Test
+    void testReadRestoresTransactionsVerbatim() {
+        String pending = "{\"id\": \"t2\", \"date\": \"2023-06-30\", \"amount\": 40.25, \"status\": \"PENDING\","
+                + " \"type\": \"EXCHANGE\", \"recipient\": \"acc2\", \"sender\": \"acc1\"}";
+        String json = "{\"version\": 2, \"balance\": 5, \"id\": \"acc1\", \"user\": " + userJson("uacc1", "$bob")
+                + ", \"creditCards\": [], \"boosts\": [], \"accounts\": {\"acc2\": " + accountJson("acc2", "$amazon")
+                + "}, \"transactions\": [" + transactionJson("t1", "\"acc2\"", "\"acc1\"") + ", " + pending + "]}";
+        try {
+            Account readAccount = new JsonAccountReader(writeTempFile(json)).read();
+            Transaction completed = readAccount.getCompletedTransactions().get(0);
+            assertEquals(LocalDate.of(2024, 1, 1), completed.getDate());
+            Transaction stillPending = readAccount.getPendingTransactions().get(0);
+            assertEquals("t2", stillPending.getId());
+            assertEquals(LocalDate.of(2023, 6, 30), stillPending.getDate());
+            assertEquals(4025, stillPending.getAmountCents());
+            assertEquals(500, readAccount.getBalanceCents());
+            assertEquals(0, stillPending.getRecipientAccount().getBalanceCents());
+        } catch (IOException e) {
+            Assertions.fail("Oops! This file cannot be read");
+        }
+    }
+
+    // EFFECTS: returns JSON of a personal user with given id and username
+    private String userJson(String id, String username) {
+        return "{\"userType\": \"PERSONAL\", \"username\": \"" + username + "\", \"location\": \"Vancouver\","
+                + " \"id\": \"" + id + "\", \"firstName\": \"Bob\", \"lastName\": \"Lee\"}";
+    }
+
+    // EFFECTS: returns JSON of an account summary with given id, owned by a user with given username
+    private String accountJson(String id, String username) {
+        return "{\"balance\": 0, \"id\": \"" + id + "\", \"user\": " + userJson("u" + id, username) + "}";
+    }
+
+    // EFFECTS: returns JSON of a completed transaction with given id, recipient and sender JSON values
+    private String transactionJson(String id, String recipient, String sender) {
+        return "{\"id\": \"" + id + "\", \"date\": \"2024-01-01\", \"amount\": 5, \"status\": \"COMPLETE\","
+                + " \"type\": \"EXCHANGE\", \"recipient\": " + recipient + ", \"sender\": " + sender + "}";
+    }
+
+    // EFFECTS: writes json to a new temporary file and returns its path
+    private String writeTempFile(String json) throws IOException {
+        File file = File.createTempFile("testReader", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return file.getPath();
+    }
 }
@@ -2,13 +2,19 @@ package persistence;
 
 import model.*;
 import model.boosts.Boost;
+import model.boosts.BoostExpression;
 import model.boosts.FoodieBoost;
 import model.boosts.ShopaholicBoost;
+import model.exceptions.InvalidBoostExpressionException;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Set;
 
@@ -129,4 +135,93 @@ public class JsonAccountWriterTest extends JsonAccountTest{
         }
     }
 
+    @Test
+    void testAccountWriterCompiledBoost() {
+        try {
+            Boost compiled = BoostExpression.compile("businessType == RETAILER && amount >= 50 -> 2%");
+            testPersonalAccount.addBoost(compiled);
+            File file = File.createTempFile("testAccountWriterCompiledBoost", ".json");
+            file.deleteOnExit();
+
+            JsonAccountWriter testAccountWriter = new JsonAccountWriter(file.getPath());
+            testAccountWriter.open();
+            testAccountWriter.write(testPersonalAccount);
+            testAccountWriter.close();
+            Account readPersonalAccount = new JsonAccountReader(file.getPath()).read();
+
+            assertEquals(1, readPersonalAccount.getBoosts().size());
+            assertTrue(readPersonalAccount.getBoosts().contains(compiled));
+        } catch (IOException | InvalidBoostExpressionException e) {
+            Assertions.fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testAccountWriterCompactAndIndented() {
+        testPersonalAccount.addCreditCard(testCard);
+        testPersonalAccount.addBoost(shopaholic);
+        testPersonalAccount.makePurchase(testBusinessAccount, 10);
+        testPersonalAccount.sendMoney(testBusinessAccount, 5);
+        try {
+            String compact = writeToTempFile(0);
+            String indented = writeToTempFile(JsonAccountWriter.TAB);
+
+            assertFalse(compact.contains("\n"));
+            assertTrue(indented.contains("\n    \"transactions\": [\n        {"));
+            assertTrue(new JSONObject(compact).similar(new JSONObject(indented)));
+        } catch (IOException e) {
+            Assertions.fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: writes testPersonalAccount to a temporary file with given indent and returns what was written
+    private String writeToTempFile(int indent) throws IOException {
+        File file = File.createTempFile("testAccountWriterIndent" + indent, ".json");
+        file.deleteOnExit();
+        JsonAccountWriter writer = new JsonAccountWriter(file.getPath(), indent);
+        writer.open();
+        writer.write(testPersonalAccount);
+        writer.close();
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testAccountWriterReferencesAccountsById() {
+        testPersonalAccount.makePurchase(testBusinessAccount, 10);
+        testPersonalAccount.makePurchase(testBusinessAccount, 20);
+        testPersonalAccount.sendMoney(testBusinessAccount, 5);
+        try {
+            JSONObject written = new JSONObject(writeToTempFile(0));
+            assertEquals(JsonAccountWriter.FORMAT_VERSION, written.getInt("version"));
+
+            JSONObject accounts = written.getJSONObject("accounts");
+            assertEquals(2, accounts.length());
+            assertEquals("$amazon", accounts.getJSONObject(testBusinessAccount.getId())
+                    .getJSONObject("user").getString("username"));
+            JSONObject transaction = written.getJSONArray("transactions").getJSONObject(0);
+            assertEquals(testBusinessAccount.getId(), transaction.getString("recipient"));
+            assertEquals(testPersonalAccount.getId(), transaction.getString("sender"));
+
+            assertTrue(written.toString().length() < testPersonalAccount.toJson().toString().length());
+        } catch (IOException e) {
+            Assertions.fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testAccountWriterKeepsPromotionWatermarks() {
+        testPersonalAccount.advancePromotionWatermark("foodie-last-month", Account.NO_WATERMARK, 1234567);
+        try {
+            JsonAccountWriter testAccountWriter = new JsonAccountWriter("./data/testAccountWriterDefault.json");
+            testAccountWriter.open();
+            testAccountWriter.write(testPersonalAccount);
+            testAccountWriter.close();
+
+            Account readAccount = new JsonAccountReader("./data/testAccountWriterDefault.json").read();
+            assertEquals(1234567, readAccount.getPromotionWatermark("foodie-last-month"));
+            assertEquals(testPersonalAccount.getPromotionWatermarks(), readAccount.getPromotionWatermarks());
+        } catch (IOException e) {
+            Assertions.fail("Exception should not have been thrown");
+        }
+    }
 }